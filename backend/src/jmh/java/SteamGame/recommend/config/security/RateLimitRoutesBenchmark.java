@@ -0,0 +1,70 @@
+package SteamGame.recommend.config.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//RateLimitingFilter가 요청마다 하는 경로 -> 정책 결정 (application.properties와 같은 라우트)
+//cached: 같은 경로 반복 (실제 트래픽), uncached: 경로 캐시 없이 매번 패턴 비교
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitRoutesBenchmark {
+    private static final String[] PATHS = {
+            "/api/recommend/input",
+            "/api/recommend/random",
+            "/api/recommend/random/batch",
+            "/api/recommend/similar",
+            "/api/recommend/profile",
+            "/api/tags/search",
+            "/api/tags",
+            "/actuator/health",
+    };
+
+    private RateLimitRoutes cachedRoutes;
+    private RateLimitRoutes uncachedRoutes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cachedRoutes = new RateLimitRoutes(properties(10_000));
+        uncachedRoutes = new RateLimitRoutes(properties(0));
+    }
+
+    @Benchmark
+    public int cached() {
+        return cachedRoutes.resolve(PATHS[next++ & (PATHS.length - 1)]);
+    }
+
+    @Benchmark
+    public int uncached() {
+        return uncachedRoutes.resolve(PATHS[next++ & (PATHS.length - 1)]);
+    }
+
+    private static RateLimitProperties properties(long maxCachedPaths) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxCachedPaths(maxCachedPaths);
+        properties.setRoutes(List.of(
+                policy("/api/recommend/input", 3, Duration.ofMinutes(30)),
+                policy("/api/recommend/**", 1, Duration.ofSeconds(2)),
+                policy("/api/tags/search", 20, Duration.ofSeconds(1))));
+        return properties;
+    }
+
+    private static RateLimitProperties.Policy policy(String pattern, long capacity, Duration refillPeriod) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPattern(pattern);
+        policy.setCapacity(capacity);
+        policy.setRefillTokens(capacity);
+        policy.setRefillPeriod(refillPeriod);
+        return policy;
+    }
+}
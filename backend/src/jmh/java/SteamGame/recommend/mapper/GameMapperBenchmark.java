@@ -0,0 +1,32 @@
+package SteamGame.recommend.mapper;
+
+import SteamGame.recommend.dto.SteamDTO;
+import SteamGame.recommend.entity.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameMapperBenchmark {
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = new Game(1L, 1145360L, "Hades",
+                "신을 거역하고 저승에서 탈출하는 로그라이크 던전 크롤러 게임입니다.",
+                "https://cdn.akamai.steamstatic.com/steam/apps/1145360/header.jpg", 250000, true);
+    }
+
+    @Benchmark
+    public SteamDTO.SteamApp convertToDTO() {
+        return GameMapper.convertToDTO(game);
+    }
+}
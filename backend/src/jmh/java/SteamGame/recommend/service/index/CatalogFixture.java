@@ -0,0 +1,93 @@
+package SteamGame.recommend.service.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+//벤치마크용 가상 카탈로그 (실제 DB와 비슷한 규모/분포)
+//태그 인기도는 Zipf 분포 (상위 몇 개 태그가 대부분 게임에 붙음), 게임당 태그 5~20개
+public final class CatalogFixture {
+    public static final int GAMES = 50_000;
+    public static final int TAGS = 450;
+
+    private final GameTagSnapshot snapshot;
+    private final String[] tagNames = new String[TAGS];
+    private final int[][] tagsByGame = new int[GAMES][];
+
+    public CatalogFixture(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] cumulative = new double[TAGS];
+        double sum = 0;
+        for (int t = 0; t < TAGS; t++) {
+            sum += 1.0 / Math.pow(t + 1, 0.9);
+            cumulative[t] = sum;
+            tagNames[t] = "태그" + t;
+        }
+
+        GameTagSnapshot.Builder builder = new GameTagSnapshot.Builder();
+        //리뷰 수 내림차순으로 넣어야 함
+        int reviewCount = 2_000_000;
+        for (int g = 0; g < GAMES; g++) {
+            reviewCount = Math.max(0, reviewCount - random.nextInt(80));
+            builder.addGame(g + 1, appidOf(g), reviewCount, random.nextInt(3) > 0, random.nextInt(10) == 0);
+        }
+        for (int t = 0; t < TAGS; t++) {
+            builder.addTag(t + 1, tagNames[t]);
+        }
+        for (int g = 0; g < GAMES; g++) {
+            int count = 5 + random.nextInt(16);
+            int[] tags = random.ints(count * 2L, 0, Integer.MAX_VALUE)
+                    .map(r -> zipf(cumulative, r / (double) Integer.MAX_VALUE * cumulative[TAGS - 1]))
+                    .distinct()
+                    .limit(count)
+                    .toArray();
+            tagsByGame[g] = tags;
+            for (int t : tags) {
+                builder.link(g + 1, t + 1);
+            }
+        }
+        this.snapshot = builder.build();
+    }
+
+    public GameTagSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public String tagName(int tag) {
+        return tagNames[tag];
+    }
+
+    //카탈로그에서 무작위로 고른 size개 게임의 appid
+    public long[] library(int size, long seed) {
+        return new SplittableRandom(seed).ints(0, GAMES).distinct().limit(size)
+                .mapToLong(CatalogFixture::appidOf).toArray();
+    }
+
+    //DB 대체 경로(findTagNamesByAppIds)가 돌려주는 것과 같은 형태: 게임마다 태그 이름 나열
+    public List<String> tagNamesOf(long[] appids) {
+        List<String> names = new ArrayList<>();
+        for (long appid : appids) {
+            for (int t : tagsByGame[(int) (appid / 10) - 1]) {
+                names.add(tagNames[t]);
+            }
+        }
+        return names;
+    }
+
+    private static long appidOf(int game) {
+        return (game + 1) * 10L;
+    }
+
+    private static int zipf(double[] cumulative, double u) {
+        int lo = 0, hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
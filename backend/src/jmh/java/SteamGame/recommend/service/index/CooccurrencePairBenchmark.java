@@ -0,0 +1,62 @@
+package SteamGame.recommend.service.index;
+
+import SteamGame.recommend.entity.TagPairKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+//CooccurrenceService가 행렬 적재 후 위임하는 쌍 선택 (findOptimalPairKey / findTopPairKeys)
+//행렬은 가상 카탈로그의 게임별 태그 쌍을 세어 만듦
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CooccurrencePairBenchmark {
+    private TagCooccurrenceMatrix matrix;
+    private List<String> profileTags;
+
+    @Setup
+    public void setUp() {
+        CatalogFixture catalog = new CatalogFixture(42);
+        GameTagSnapshot snapshot = catalog.snapshot();
+        int[][] counts = new int[CatalogFixture.TAGS][CatalogFixture.TAGS];
+        for (int g = 0; g < snapshot.size(); g++) {
+            int[] tags = snapshot.tagOrdinalsOf(g);
+            for (int i = 0; i < tags.length; i++) {
+                for (int j = i + 1; j < tags.length; j++) {
+                    counts[Math.min(tags[i], tags[j])][Math.max(tags[i], tags[j])]++;
+                }
+            }
+        }
+        TagCooccurrenceMatrix.Builder builder = TagCooccurrenceMatrix.builder();
+        for (int i = 0; i < counts.length; i++) {
+            for (int j = i + 1; j < counts.length; j++) {
+                if (counts[i][j] > 0) {
+                    builder.add(snapshot.tagName(i), snapshot.tagName(j), counts[i][j]);
+                }
+            }
+        }
+        matrix = builder.build();
+
+        //프로필 상위 태그 8개 (recommendByProfile과 같은 크기)
+        profileTags = new ArrayList<>(snapshot.topTags(catalog.library(5000, 7), 8));
+    }
+
+    @Benchmark
+    public Optional<TagPairKey> bestPair() {
+        return matrix.bestPair(profileTags, 5);
+    }
+
+    @Benchmark
+    public List<TagPairKey> topPairs() {
+        return matrix.topPairs(profileTags, 5, 3);
+    }
+}
@@ -0,0 +1,44 @@
+package SteamGame.recommend.service.tag;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+//기록해 둔 Gemini 응답 본문(resources/gemini)에서 태그 배열 추출
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExtractTagsBenchmark {
+    @Param({"plain", "fenced", "verbose"})
+    public String body;
+
+    private TagService tagService;
+    private String response;
+
+    @Setup
+    public void setUp() throws IOException {
+        tagService = new TagService(new ObjectMapper(), null, null);
+        try (InputStream in = ExtractTagsBenchmark.class.getResourceAsStream("/gemini/" + body + ".json")) {
+            response = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (tagService.extractTags(response).length == 0) {
+            throw new IllegalStateException("태그를 추출하지 못한 응답: " + body);
+        }
+    }
+
+    @Benchmark
+    public String[] extractTags() {
+        return tagService.extractTags(response);
+    }
+}
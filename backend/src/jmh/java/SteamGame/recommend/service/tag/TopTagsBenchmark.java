@@ -0,0 +1,49 @@
+package SteamGame.recommend.service.tag;
+
+import SteamGame.recommend.service.index.CatalogFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//보유 게임 라이브러리의 태그 빈도 상위 N개
+//listPath: 인덱스 적재 전 DB 대체 경로 (태그 이름 목록을 세는 getTopTags)
+//indexPath: 인메모리 스냅샷 경로 (getTopTagsByAppIds가 인덱스 준비 후 사용하는 topTags)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TopTagsBenchmark {
+    @Param({"500", "5000"})
+    public int librarySize;
+
+    private TagService tagService;
+    private CatalogFixture catalog;
+    private long[] library;
+    private List<String> libraryTagNames;
+
+    @Setup
+    public void setUp() {
+        tagService = new TagService(new ObjectMapper(), null, null);
+        catalog = new CatalogFixture(42);
+        library = catalog.library(librarySize, 7);
+        libraryTagNames = catalog.tagNamesOf(library);
+    }
+
+    @Benchmark
+    public List<String> listPath() {
+        return tagService.getTopTags(libraryTagNames, 8);
+    }
+
+    @Benchmark
+    public List<String> indexPath() {
+        return catalog.snapshot().topTags(library, 8);
+    }
+}
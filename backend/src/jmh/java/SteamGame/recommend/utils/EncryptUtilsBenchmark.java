@@ -0,0 +1,43 @@
+package SteamGame.recommend.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+//캐시 키(정규화한 입력 문장)와 태그 스냅샷 ETag 계산
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EncryptUtilsBenchmark {
+    private static final String SENTENCE = "친구랑 같이 할 수 있는 협동 생존 게임 추천해줘 너무 어렵지 않은 걸로";
+
+    @Param({"1", "200"})
+    public int repeat;
+
+    private String input;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        input = SENTENCE.repeat(repeat);
+        bytes = input.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String sha256String() {
+        return EncryptUtils.sha256(input);
+    }
+
+    @Benchmark
+    public String sha256Bytes() {
+        return EncryptUtils.sha256(bytes);
+    }
+}
@@ -0,0 +1,185 @@
+package SteamGame.recommend.loadtest;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+
+//부하 테스트용 가상 카탈로그를 MySQL에 적재 (games / tags / game_tags / tag_cooccurrence)
+//스키마는 앱과 같은 Flyway 마이그레이션으로 만들고, 기존 데이터가 있으면 --reset 없이는 중단
+//
+//./gradlew loadtestGenerate -Pargs="--games=200000 --tags=450 --zipf=1.0 --reset"
+public final class CatalogGenerator {
+    private static final int BATCH_SIZE = 5_000;
+
+    public static void main(String[] argv) throws SQLException {
+        Args args = new Args(argv);
+        SyntheticCatalog catalog = SyntheticCatalog.from(args);
+        String url = args.get("jdbc-url", "jdbc:mysql://localhost:3306/testdb?serverTimezone=UTC&characterEncoding=UTF-8");
+        if (!url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        String user = args.get("user", "root");
+        String password = args.get("password", "test");
+        long seed = args.getLong("seed", 1);
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        long start = System.currentTimeMillis();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            prepare(connection, args.getBoolean("reset", false));
+            insertTags(connection, catalog);
+            int[] cooccurrence = new int[catalog.tags * catalog.tags];
+            int links = insertGames(connection, catalog, new SplittableRandom(seed), cooccurrence);
+            int pairs = insertCooccurrences(connection, catalog, cooccurrence);
+            markCooccurrenceComputed(connection);
+            System.out.printf("게임 %d개, 태그 %d개, 게임-태그 %d개, 동시 출현 쌍 %d개 적재 (%dms)%n",
+                    catalog.games, catalog.tags, links, pairs, System.currentTimeMillis() - start);
+        }
+    }
+
+    private static void prepare(Connection connection, boolean reset) throws SQLException {
+        String[] tables = {"game_tags", "games", "tags", "tag_cooccurrence", "game_tag_changes"};
+        try (Statement statement = connection.createStatement()) {
+            if (!reset) {
+                for (String table : tables) {
+                    try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                        rs.next();
+                        if (rs.getLong(1) > 0) {
+                            throw new IllegalStateException(table + " 테이블이 비어 있지 않습니다. 덮어쓰려면 --reset");
+                        }
+                    }
+                }
+                return;
+            }
+            statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+            for (String table : tables) {
+                statement.execute("TRUNCATE TABLE " + table);
+            }
+            statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+        }
+        connection.commit();
+    }
+
+    private static void insertTags(Connection connection, SyntheticCatalog catalog) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO tags (id, name) VALUES (?, ?)")) {
+            for (int t = 0; t < catalog.tags; t++) {
+                insert.setLong(1, t + 1);
+                insert.setString(2, SyntheticCatalog.tagName(t));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    //게임 번호가 작을수록 리뷰 수가 많고, 게임마다 Zipf 분포로 태그 5~20개
+    //동시 출현 수는 적재하면서 같이 셈 (cooccurrence[i * tags + j], 태그 번호 i < j)
+    private static int insertGames(Connection connection, SyntheticCatalog catalog, SplittableRandom random,
+                                   int[] cooccurrence) throws SQLException {
+        int links = 0;
+        try (PreparedStatement games = connection.prepareStatement("""
+                INSERT INTO games (id, appid, name, description, image_url, review_count, korean_support, is_free)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """);
+             PreparedStatement gameTags = connection.prepareStatement(
+                     "INSERT INTO game_tags (game_id, tag_id) VALUES (?, ?)")) {
+            int[] tags = new int[20];
+            for (int g = 0; g < catalog.games; g++) {
+                long appid = SyntheticCatalog.appidOf(g);
+                int reviewCount = (int) (2_000_000 / Math.pow(g + 1, 0.9)) + random.nextInt(50);
+                games.setLong(1, g + 1);
+                games.setLong(2, appid);
+                games.setString(3, "Synthetic Game " + g);
+                games.setString(4, "부하 테스트용 가상 게임 " + g + "번입니다. 설명 길이를 실제 상점 요약과 비슷하게 맞추기 위한 문장입니다.");
+                games.setString(5, "https://cdn.akamai.steamstatic.com/steam/apps/" + appid + "/header.jpg");
+                games.setInt(6, reviewCount);
+                games.setBoolean(7, random.nextInt(10) < 6);
+                games.setBoolean(8, random.nextInt(10) == 0);
+                games.addBatch();
+
+                int count = 0;
+                int target = Math.min(catalog.tags, 5 + random.nextInt(16));
+                while (count < target) {
+                    int tag = catalog.randomTag(random);
+                    boolean duplicate = false;
+                    for (int i = 0; i < count && !duplicate; i++) {
+                        duplicate = tags[i] == tag;
+                    }
+                    if (!duplicate) {
+                        tags[count++] = tag;
+                    }
+                }
+                for (int i = 0; i < count; i++) {
+                    gameTags.setLong(1, g + 1);
+                    gameTags.setLong(2, tags[i] + 1);
+                    gameTags.addBatch();
+                    for (int j = i + 1; j < count; j++) {
+                        cooccurrence[Math.min(tags[i], tags[j]) * catalog.tags + Math.max(tags[i], tags[j])]++;
+                    }
+                }
+                links += count;
+
+                if ((g + 1) % BATCH_SIZE == 0) {
+                    games.executeBatch();
+                    gameTags.executeBatch();
+                    connection.commit();
+                }
+            }
+            games.executeBatch();
+            gameTags.executeBatch();
+        }
+        connection.commit();
+        return links;
+    }
+
+    //모든 게임을 센 상태이므로 적재 중 트리거가 남긴 변경 기록을 비우고 기준을 0으로 (남아 있으면 같은 게임을 두 번 더함)
+    //TRUNCATE가 AUTO_INCREMENT를 1로 돌리므로 이후 변경은 기준 0 다음부터 쌓임
+    private static void markCooccurrenceComputed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE game_tag_changes");
+            statement.executeUpdate("UPDATE cooccurrence_state SET watermark = 0 WHERE id = 1");
+        }
+        connection.commit();
+    }
+
+    //tag1 < tag2 (문자열 순서, TagCooccurrenceMatrix.pairKey와 같은 규칙)
+    private static int insertCooccurrences(Connection connection, SyntheticCatalog catalog, int[] cooccurrence) throws SQLException {
+        int pairs = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO tag_cooccurrence (tag1, tag2, count) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < catalog.tags; i++) {
+                for (int j = i + 1; j < catalog.tags; j++) {
+                    int count = cooccurrence[i * catalog.tags + j];
+                    if (count == 0) {
+                        continue;
+                    }
+                    String a = SyntheticCatalog.tagName(i);
+                    String b = SyntheticCatalog.tagName(j);
+                    boolean ordered = a.compareTo(b) < 0;
+                    insert.setString(1, ordered ? a : b);
+                    insert.setString(2, ordered ? b : a);
+                    insert.setInt(3, count);
+                    insert.addBatch();
+                    if (++pairs % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return pairs;
+    }
+}
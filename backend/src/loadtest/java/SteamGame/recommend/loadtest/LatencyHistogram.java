@@ -0,0 +1,74 @@
+package SteamGame.recommend.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//잠금 없는 로그-선형 히스토그램 (마이크로초 단위, 상대 오차 1% 미만)
+//2의 거듭제곱 구간마다 SUB_BUCKETS개로 나눔, 여러 스레드가 동시에 record 해도 됨
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    //2^(SUB_BUCKET_BITS + 30)µs ≈ 38시간까지
+    private static final int RANGES = 31;
+
+    private final AtomicLongArray counts = new AtomicLongArray((RANGES + 1) * SUB_BUCKETS);
+
+    void record(long micros) {
+        counts.incrementAndGet(indexOf(Math.max(0, micros)));
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    //quantile(0.99) = 전체의 99%가 이 값 이하 (구간 상한값)
+    long quantile(double q) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(counts.length() - 1);
+    }
+
+    long max() {
+        for (int i = counts.length() - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return upperBoundOf(i);
+            }
+        }
+        return 0;
+    }
+
+    //0..SUB_BUCKETS-1은 1µs 단위, 그 위는 구간마다 폭이 두 배
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int range = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        if (range > RANGES) {
+            return (RANGES + 1) * SUB_BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (range - 1)) - SUB_BUCKETS;
+        return range * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        int range = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (range == 0) {
+            return sub;
+        }
+        return ((long) (SUB_BUCKETS + sub + 1) << (range - 1)) - 1;
+    }
+}
@@ -0,0 +1,337 @@
+package SteamGame.recommend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+//RecommendController 부하 드라이버
+//closed: 동시 사용자 concurrency명이 응답을 받자마자 다음 요청 (최대 처리량 측정)
+//open: 초당 rate건을 포아송 도착으로 보냄, 지연은 "보내려던 시각"부터 재므로 서버가 밀려도 지연이 숨지 않음
+//엔드포인트별 p50/p99/p999, 처리량, 상태 코드 분포를 출력하고 JSON으로 저장
+//
+//./gradlew loadtest -Pargs="--mode=open --rate=300 --duration=2m --warmup=20s"
+public final class LoadDriver {
+    private static final String DEFAULT_MIX = "random:35,batch:10,similar:10,input:10,profile:10,recent:5,search:15,tags:5";
+
+    private static final String[] WORDS = {
+            "잔잔한", "긴장감", "넘치는", "혼자", "친구와", "밤새", "짧게", "출퇴근길에", "이야기가", "좋은",
+            "손맛", "있는", "머리", "쓰는", "무서운", "귀여운", "어두운", "밝은", "빠른", "느긋한",
+            "경쟁", "협력", "수집", "성장", "탐험", "건설", "전투", "대화", "선택", "반복",
+            "음악", "그림체", "분위기", "난이도", "조작", "세계관", "캐릭터", "보스", "퍼즐", "도시",
+            "우주", "바다", "숲", "던전", "학교", "전쟁", "요리", "농사", "낚시", "자동차"};
+
+    private final Args args;
+    private final SyntheticCatalog catalog;
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final String apiKey;
+    private final String apiKeyHeader;
+    private final int users;
+    private final double inputRepeat;
+    private final double inputLocal;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final double[] cumulativeWeights;
+    private final AtomicLong uniqueInputs = new AtomicLong();
+
+    private volatile long measureFromNanos;
+
+    LoadDriver(Args args) {
+        this.args = args;
+        this.catalog = SyntheticCatalog.from(args);
+        this.baseUrl = URI.create(args.get("base-url", "http://localhost:8080"));
+        this.apiKey = args.get("api-key", "loadtest");
+        this.apiKeyHeader = args.get("api-key-header", "x-api-key");
+        this.users = args.getInt("users", 10_000);
+        this.inputRepeat = args.getDouble("input-repeat", 0.5);
+        this.inputLocal = args.getDouble("input-local", 0.3);
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(args.getInt("client-threads", 16)))
+                .build();
+
+        double total = 0;
+        List<Double> weights = new ArrayList<>();
+        for (String entry : args.get("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.split(":");
+            double weight = Double.parseDouble(parts[1]);
+            if (weight > 0) {
+                endpoints.add(new Endpoint(parts[0]));
+                total += weight;
+                weights.add(total);
+            }
+        }
+        this.cumulativeWeights = weights.stream().mapToDouble(w -> w).toArray();
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        LoadDriver driver = new LoadDriver(args);
+        Duration warmup = args.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = args.getDuration("duration", Duration.ofSeconds(60));
+        String mode = args.get("mode", "closed");
+
+        long start = System.nanoTime();
+        driver.measureFromNanos = start + warmup.toNanos();
+        long end = driver.measureFromNanos + duration.toNanos();
+        System.out.printf("%s 모드, 워밍업 %ds + 측정 %ds -> %s%n", mode, warmup.toSeconds(), duration.toSeconds(), driver.baseUrl);
+
+        long dropped = switch (mode) {
+            case "closed" -> driver.runClosed(args.getInt("concurrency", 32), end);
+            case "open" -> driver.runOpen(args.getDouble("rate", 100), args.getInt("max-in-flight", 5_000), end);
+            default -> throw new IllegalArgumentException("mode는 closed 또는 open: " + mode);
+        };
+        driver.report(mode, duration, dropped);
+        System.exit(0);
+    }
+
+    private long runClosed(int concurrency, long endNanos) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        Duration think = args.getDuration("think-time", Duration.ZERO);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+                while (System.nanoTime() < endNanos) {
+                    Endpoint endpoint = pick(random);
+                    HttpRequest request = endpoint.request(random);
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        endpoint.record(sent, response.statusCode());
+                    } catch (IOException e) {
+                        endpoint.record(sent, -1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (!think.isZero()) {
+                        LockSupport.parkNanos(think.toNanos());
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(endNanos - System.nanoTime() + TimeUnit.SECONDS.toNanos(30), TimeUnit.NANOSECONDS);
+        return 0;
+    }
+
+    //도착 간격은 지수 분포, 처리 중인 요청이 max-in-flight를 넘으면 보내지 않고 dropped로 셈
+    private long runOpen(double rate, int maxInFlight, long endNanos) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        AtomicInteger inFlight = new AtomicInteger();
+        long dropped = 0;
+        long next = System.nanoTime();
+        while (next < endNanos) {
+            next += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= maxInFlight) {
+                if (next >= measureFromNanos) {
+                    dropped++;
+                }
+                continue;
+            }
+            Endpoint endpoint = pick(random);
+            long intended = next;
+            inFlight.incrementAndGet();
+            client.sendAsync(endpoint.request(random), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        endpoint.record(intended, error == null ? response.statusCode() : -1);
+                    });
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        return dropped;
+    }
+
+    private Endpoint pick(SplittableRandom random) {
+        double u = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (u < cumulativeWeights[i]) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private void report(String mode, Duration duration, long dropped) throws IOException {
+        double seconds = duration.toMillis() / 1000.0;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode);
+        result.put("durationSeconds", seconds);
+        result.put("dropped", dropped);
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+
+        System.out.printf("%n%-8s %9s %9s %9s %9s %9s %9s %7s %7s %7s %7s%n",
+                "endpoint", "requests", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "2xx/3xx", "4xx", "5xx", "io");
+        long total = 0;
+        for (Endpoint endpoint : endpoints) {
+            LatencyHistogram h = endpoint.latency;
+            long count = h.count();
+            total += count;
+            System.out.printf("%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d %7d%n",
+                    endpoint.name, count, count / seconds,
+                    h.quantile(0.50) / 1000.0, h.quantile(0.99) / 1000.0, h.quantile(0.999) / 1000.0, h.max() / 1000.0,
+                    endpoint.ok.sum(), endpoint.clientErrors.sum(), endpoint.serverErrors.sum(), endpoint.ioErrors.sum());
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", count);
+            stats.put("throughput", count / seconds);
+            stats.put("p50Ms", h.quantile(0.50) / 1000.0);
+            stats.put("p99Ms", h.quantile(0.99) / 1000.0);
+            stats.put("p999Ms", h.quantile(0.999) / 1000.0);
+            stats.put("maxMs", h.max() / 1000.0);
+            stats.put("ok", endpoint.ok.sum());
+            stats.put("clientErrors", endpoint.clientErrors.sum());
+            stats.put("serverErrors", endpoint.serverErrors.sum());
+            stats.put("ioErrors", endpoint.ioErrors.sum());
+            byEndpoint.put(endpoint.name, stats);
+        }
+        System.out.printf("합계 %d건, %.1f req/s, dropped %d%n", total, total / seconds, dropped);
+        result.put("throughput", total / seconds);
+        result.put("endpoints", byEndpoint);
+
+        Path path = Path.of(args.get("report", "build/loadtest/report-" + System.currentTimeMillis() + ".json"));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), result);
+        System.out.println("결과 저장: " + path);
+    }
+
+    //엔드포인트 하나의 요청 생성 규칙과 측정값
+    private final class Endpoint {
+        final String name;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder ioErrors = new LongAdder();
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        //워밍업 중 시작한 요청은 버림, status -1은 연결 오류/타임아웃
+        void record(long startNanos, int status) {
+            if (startNanos < measureFromNanos) {
+                return;
+            }
+            latency.record((System.nanoTime() - startNanos) / 1000);
+            if (status < 0) {
+                ioErrors.increment();
+            } else if (status < 400) {
+                ok.increment();
+            } else if (status < 500) {
+                clientErrors.increment();
+            } else {
+                serverErrors.increment();
+            }
+        }
+
+        HttpRequest request(SplittableRandom random) {
+            return switch (name) {
+                case "random" -> get("/api/recommend/random?" + tagQuery(random) + filterQuery(random), random);
+                case "batch" -> get("/api/recommend/random/batch?" + tagQuery(random) + filterQuery(random) + "&count=5", random);
+                case "similar" -> get("/api/recommend/similar?appid=" + SyntheticCatalog.appidOf(catalog.randomGame(random))
+                        + filterQuery(random) + "&count=5", random);
+                case "input" -> post("/api/recommend/input", "input", inputSentence(random), random);
+                case "profile" -> post("/api/recommend/profile", "steamId", catalog.steamId(random.nextInt(users)), random);
+                case "recent" -> post("/api/recommend/RecentPlay", "steamId", catalog.steamId(random.nextInt(users)), random);
+                case "search" -> get("/api/tags/search?q=" + encode(searchPrefix(random)) + "&limit=10", random);
+                case "tags" -> builder("/api/tags", random).header("Accept-Encoding", "gzip").GET().build();
+                default -> throw new IllegalArgumentException("알 수 없는 엔드포인트: " + name);
+            };
+        }
+
+        private HttpRequest get(String pathAndQuery, SplittableRandom random) {
+            return builder(pathAndQuery, random).GET().build();
+        }
+
+        private HttpRequest post(String path, String field, String value, SplittableRandom random) {
+            String body = "{\"" + field + "\":\"" + value.replace("\"", "\\\"") + "\"}";
+            return builder(path, random)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                    .build();
+        }
+
+        //사용자마다 X-Client-Id를 달리해 중복 추천 제외 집합이 실제처럼 나뉘게 함
+        private HttpRequest.Builder builder(String pathAndQuery, SplittableRandom random) {
+            return HttpRequest.newBuilder(baseUrl.resolve(pathAndQuery))
+                    .timeout(Duration.ofSeconds(30))
+                    .header(apiKeyHeader, apiKey)
+                    .header("X-Client-Id", "loadtest-" + random.nextInt(users));
+        }
+    }
+
+    //인기 태그 위주로 1~3개
+    private String tagQuery(SplittableRandom random) {
+        int count = 1 + random.nextInt(3);
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            query.append(i > 0 ? "&" : "").append("tags=").append(encode(SyntheticCatalog.tagName(catalog.randomTag(random))));
+        }
+        return query.toString();
+    }
+
+    private static String filterQuery(SplittableRandom random) {
+        return "&review=" + (random.nextBoolean() ? 0 : 1000)
+                + "&korean_check=" + random.nextBoolean()
+                + (random.nextInt(4) == 0 ? "&free_check=true" : "");
+    }
+
+    //input-local: 태그 이름으로만 된 문장 (로컬 추출), input-repeat: 자주 나오는 문장 200개 중 하나 (캐시 적중)
+    //나머지는 매번 다른 문장 (Gemini 호출)
+    private String inputSentence(SplittableRandom random) {
+        double u = random.nextDouble();
+        if (u < inputLocal) {
+            return SyntheticCatalog.tagName(catalog.randomTag(random)) + " "
+                    + SyntheticCatalog.tagName(catalog.randomTag(random)) + " 게임 추천해줘";
+        }
+        if (u < inputLocal + inputRepeat) {
+            return "주말에 친구랑 가볍게 할 만한 게임 찾고 있어요 " + random.nextInt(200) + "번째 질문";
+        }
+        //유사도 캐시에 걸리지 않도록 단어 조합을 매번 다르게
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            sentence.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return sentence.append(uniqueInputs.incrementAndGet()).toString();
+    }
+
+    //태그 이름 앞 1~3글자 (자동완성 타이핑)
+    private String searchPrefix(SplittableRandom random) {
+        String name = SyntheticCatalog.tagName(catalog.randomTag(random));
+        return name.substring(0, Math.min(name.length(), 1 + random.nextInt(3)));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
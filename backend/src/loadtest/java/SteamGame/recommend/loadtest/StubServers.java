@@ -0,0 +1,191 @@
+package SteamGame.recommend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Steam Web API / Gemini generateContent 대역 (네트워크 없이 부하 테스트)
+//지연은 로그 정규 분포 (중앙값 *-latency, 꼬리 폭 latency-sigma), 일부 요청은 오류 응답
+//
+//./gradlew loadtestStubs -Pargs="--steam-latency=80ms --gemini-latency=700ms --gemini-error-rate=0.02"
+public final class StubServers {
+    private final SyntheticCatalog catalog;
+    private final Latency steamLatency;
+    private final Latency geminiLatency;
+    private final double steamErrorRate;
+    private final double geminiErrorRate;
+
+    private record Latency(long medianMillis, double sigma) {
+        void sleep() {
+            if (medianMillis <= 0) {
+                return;
+            }
+            double gaussian = ThreadLocalRandom.current().nextGaussian();
+            long millis = (long) (medianMillis * Math.exp(sigma * gaussian));
+            try {
+                Thread.sleep(Math.min(millis, medianMillis * 50));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    StubServers(Args args) {
+        this.catalog = SyntheticCatalog.from(args);
+        double sigma = args.getDouble("latency-sigma", 0.5);
+        this.steamLatency = new Latency(args.getDuration("steam-latency", Duration.ofMillis(80)).toMillis(), sigma);
+        this.geminiLatency = new Latency(args.getDuration("gemini-latency", Duration.ofMillis(700)).toMillis(), sigma);
+        this.steamErrorRate = args.getDouble("steam-error-rate", 0.0);
+        this.geminiErrorRate = args.getDouble("gemini-error-rate", 0.0);
+    }
+
+    public static void main(String[] argv) throws IOException {
+        Args args = new Args(argv);
+        StubServers stubs = new StubServers(args);
+        //지연 중인 요청이 스레드를 잡고 있으므로 동시 요청 수만큼 스레드가 필요
+        ExecutorService executor = Executors.newFixedThreadPool(args.getInt("threads", 512));
+
+        HttpServer steam = HttpServer.create(new InetSocketAddress(args.getInt("steam-port", 18081)), 1024);
+        steam.createContext("/IPlayerService/GetOwnedGames/v1/", exchange -> stubs.ownedGames(exchange, false));
+        steam.createContext("/IPlayerService/GetRecentlyPlayedGames/v1/", exchange -> stubs.ownedGames(exchange, true));
+        steam.setExecutor(executor);
+        steam.start();
+
+        HttpServer gemini = HttpServer.create(new InetSocketAddress(args.getInt("gemini-port", 18082)), 1024);
+        gemini.createContext("/v1beta/models/", stubs::generateContent);
+        gemini.setExecutor(executor);
+        gemini.start();
+
+        System.out.printf("Steam 스텁 :%d, Gemini 스텁 :%d (게임 %d개, 태그 %d개)%n",
+                steam.getAddress().getPort(), gemini.getAddress().getPort(), stubs.catalog.games, stubs.catalog.tags);
+    }
+
+    //GetOwnedGames / GetRecentlyPlayedGames 응답 형식 (비공개 프로필은 빈 response)
+    private void ownedGames(HttpExchange exchange, boolean recent) throws IOException {
+        steamLatency.sleep();
+        if (fails(steamErrorRate)) {
+            respond(exchange, 500, "text/html", "<html><body>Internal Server Error</body></html>");
+            return;
+        }
+        String steamId = queryParam(exchange.getRequestURI(), "steamid");
+        long[][] library = steamId == null || !steamId.chars().allMatch(Character::isDigit) ? null : catalog.library(steamId);
+        if (library == null) {
+            respond(exchange, 200, "application/json", "{\"response\":{}}");
+            return;
+        }
+
+        long[] appids = library[0];
+        long[] playtimes = library[1];
+        StringBuilder json = new StringBuilder(appids.length * 96 + 64);
+        int count = 0;
+        json.append("{\"response\":{\"games\":[");
+        for (int i = 0; i < appids.length; i++) {
+            //최근 2주 플레이는 라이브러리 중 플레이 시간이 있는 일부 (최대 10개)
+            if (recent && (count >= 10 || playtimes[i] == 0 || i % 7 != 0)) {
+                continue;
+            }
+            if (count++ > 0) {
+                json.append(',');
+            }
+            json.append("{\"appid\":").append(appids[i]);
+            if (recent) {
+                json.append(",\"name\":\"Synthetic Game ").append(SyntheticCatalog.gameOf(appids[i])).append('"')
+                        .append(",\"playtime_2weeks\":").append(Math.min(playtimes[i], 20_160));
+            }
+            json.append(",\"playtime_forever\":").append(playtimes[i])
+                    .append(",\"playtime_windows_forever\":").append(playtimes[i])
+                    .append(",\"playtime_mac_forever\":0,\"playtime_linux_forever\":0,\"rtime_last_played\":1735689600}");
+        }
+        json.append("],").append(recent ? "\"total_count\":" : "\"game_count\":").append(count).append("}}");
+        respond(exchange, 200, "application/json", json.toString());
+    }
+
+    //candidates[0].content.parts[0].text 안에 JSON 배열로 태그 2~4개 (Zipf 분포)
+    private void generateContent(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        geminiLatency.sleep();
+        if (fails(geminiErrorRate)) {
+            respond(exchange, 429, "application/json",
+                    "{\"error\":{\"code\":429,\"message\":\"Resource has been exhausted (e.g. check quota).\",\"status\":\"RESOURCE_EXHAUSTED\"}}");
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        int count = 2 + random.nextInt(3);
+        StringBuilder tags = new StringBuilder("[");
+        int[] picked = new int[count];
+        for (int i = 0; i < count; i++) {
+            picked[i] = distinctTag(random, picked, i);
+            tags.append(i > 0 ? ", " : "").append("\\\"").append(SyntheticCatalog.tagName(picked[i])).append("\\\"");
+        }
+        tags.append(']');
+        respond(exchange, 200, "application/json", """
+                {
+                  "candidates": [
+                    {
+                      "content": {
+                        "parts": [ { "text": "```json\\n%s\\n```\\n" } ],
+                        "role": "model"
+                      },
+                      "finishReason": "STOP",
+                      "avgLogprobs": -0.0873
+                    }
+                  ],
+                  "usageMetadata": { "promptTokenCount": 1890, "candidatesTokenCount": 22, "totalTokenCount": 1912 },
+                  "modelVersion": "gemini-2.0-flash"
+                }
+                """.formatted(tags));
+    }
+
+    private int distinctTag(SplittableRandom random, int[] picked, int count) {
+        while (true) {
+            int tag = catalog.randomTag(random);
+            boolean duplicate = false;
+            for (int i = 0; i < count && !duplicate; i++) {
+                duplicate = picked[i] == tag;
+            }
+            if (!duplicate) {
+                return tag;
+            }
+        }
+    }
+
+    private static boolean fails(double errorRate) {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package SteamGame.recommend.loadtest;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+//생성기, 스텁 서버, 부하 드라이버가 같은 규칙으로 appid/태그 이름/보유 게임을 만들도록 공유
+//게임 수와 태그 수, 시드만 같으면 DB를 조회하지 않아도 서로 맞는 값을 씀
+final class SyntheticCatalog {
+    static final long FIRST_APPID = 100_000;
+    static final long FIRST_STEAM_ID = 76_561_198_000_000_000L;
+
+    private static final String[] GENRES = {
+            "액션", "어드벤처", "전략", "시뮬레이션", "RPG", "퍼즐", "레이싱", "스포츠", "공포", "로그라이크",
+            "생존", "샌드박스", "리듬", "플랫포머", "슈팅", "카드", "턴제", "경영", "탐험", "건설"};
+    private static final String[] MODIFIERS = {
+            "", "협동 ", "오픈 월드 ", "캐주얼 ", "하드코어 ", "픽셀 ", "힐링 ", "멀티 ", "스토리 ", "SF ",
+            "판타지 ", "중세 ", "도트 ", "실시간 ", "3D ", "귀여운 ", "어두운 ", "레트로 ", "경쟁 ", "1인칭 "};
+
+    final int games;
+    final int tags;
+    private final double[] tagCumulative;
+
+    SyntheticCatalog(int games, int tags, double zipfExponent) {
+        this.games = games;
+        this.tags = tags;
+        this.tagCumulative = new double[tags];
+        double sum = 0;
+        for (int t = 0; t < tags; t++) {
+            sum += 1.0 / Math.pow(t + 1, zipfExponent);
+            tagCumulative[t] = sum;
+        }
+    }
+
+    static SyntheticCatalog from(Args args) {
+        return new SyntheticCatalog(args.getInt("games", 100_000), args.getInt("tags", 450),
+                args.getDouble("zipf", 1.0));
+    }
+
+    //게임 번호 0..games-1, 번호가 작을수록 인기 게임 (리뷰 수 많음)
+    static long appidOf(int game) {
+        return FIRST_APPID + game * 10L;
+    }
+
+    static int gameOf(long appid) {
+        return (int) ((appid - FIRST_APPID) / 10);
+    }
+
+    //태그 번호가 작을수록 인기 태그, 번호와 이름은 1:1 (GENRES x MODIFIERS 조합 후 숫자 접미사)
+    static String tagName(int tag) {
+        int combos = GENRES.length * MODIFIERS.length;
+        String base = MODIFIERS[(tag / GENRES.length) % MODIFIERS.length] + GENRES[tag % GENRES.length];
+        return tag < combos ? base : base + " " + (tag / combos + 1);
+    }
+
+    //Zipf 분포로 태그 하나
+    int randomTag(SplittableRandom random) {
+        double u = random.nextDouble() * tagCumulative[tags - 1];
+        int lo = 0, hi = tags - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tagCumulative[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    //인기 게임일수록 자주 뽑히도록 (게임 인기도도 Zipf에 가깝게)
+    int randomGame(SplittableRandom random) {
+        return (int) Math.min(games - 1, Math.floor(Math.pow(games, random.nextDouble())) - 1);
+    }
+
+    String steamId(int user) {
+        return Long.toString(FIRST_STEAM_ID + user);
+    }
+
+    //steamId마다 항상 같은 라이브러리 (게임 수는 로그 정규 분포, 중앙값 약 80개, 최대 5000개)
+    //비공개 프로필(약 5%)은 null
+    long[][] library(String steamId) {
+        SplittableRandom random = new SplittableRandom(Long.parseLong(steamId) * 0x9E3779B97F4A7C15L);
+        if (random.nextInt(20) == 0) {
+            return null;
+        }
+        int size = (int) Math.min(5000, Math.max(1, Math.exp(Math.log(80) + 1.2 * gaussian(random))));
+        size = Math.min(size, games);
+        Set<Long> owned = new LinkedHashSet<>();
+        for (int attempt = 0; owned.size() < size && attempt < size * 10; attempt++) {
+            owned.add(appidOf(randomGame(random)));
+        }
+        long[] appids = owned.stream().mapToLong(Long::longValue).toArray();
+        long[] playtimes = new long[appids.length];
+        for (int i = 0; i < playtimes.length; i++) {
+            playtimes[i] = random.nextInt(4) == 0 ? 0 : (long) Math.exp(random.nextDouble() * 9);
+        }
+        return new long[][]{appids, playtimes};
+    }
+
+    static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
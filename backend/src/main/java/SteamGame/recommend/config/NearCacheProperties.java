@@ -0,0 +1,36 @@
+package SteamGame.recommend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+//Redis 앞단 노드 로컬(L1) 캐시의 구역(namespace)별 설정
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class NearCacheProperties {
+    private Map<String, Namespace> namespaces = new HashMap<>();
+
+    public Namespace namespace(String name) {
+        return namespaces.getOrDefault(name, new Namespace());
+    }
+
+    public enum Mode {
+        //L1 사용 안 함, 항상 Redis
+        NONE,
+        //한 번 쓰면 바뀌지 않는 값: TTL로만 만료, 무효화 메시지 없음
+        IMMUTABLE,
+        //쓰기는 Redis에 먼저 반영 후 L1 갱신, 다른 노드 L1은 pub/sub로 무효화
+        WRITE_THROUGH
+    }
+
+    @Getter @Setter
+    public static class Namespace {
+        private Mode mode = Mode.NONE;
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
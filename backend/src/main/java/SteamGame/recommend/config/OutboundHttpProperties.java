@@ -0,0 +1,27 @@
+package SteamGame.recommend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+//외부 API(업스트림)별 커넥션 풀/타임아웃 설정
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.http")
+public class OutboundHttpProperties {
+    private Upstream steam = new Upstream();
+    private Upstream gemini = new Upstream();
+
+    @Getter @Setter
+    public static class Upstream {
+        private String baseUrl;
+        private int maxConnections = 50;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration responseTimeout = Duration.ofSeconds(5);
+        private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+    }
+}
@@ -1,21 +1,63 @@
 package SteamGame.recommend.config;
 
+import SteamGame.recommend.utils.RequestTiming;
+import SteamGame.recommend.utils.RequestTiming.Stage;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
+    //opsForXxx, Lua 스크립트, 파이프라인 모두 execute(RedisCallback, ...)를 거치므로 여기서 요청별 Redis 시간을 기록
     @Bean
-    public RedisTemplate<String,Boolean> redisTemplate(RedisConnectionFactory connectionFactory){
-        RedisTemplate<String, Boolean> template = new RedisTemplate<>();
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory){
+        StringRedisTemplate template = new StringRedisTemplate() {
+            @Override
+            public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+                long start = System.nanoTime();
+                try {
+                    return super.execute(action, exposeConnection, pipeline);
+                } finally {
+                    RequestTiming.record(Stage.REDIS, start);
+                }
+            }
+        };
+        template.setConnectionFactory(connectionFactory);
+        return template;
+    }
+
+    //바이너리 값(압축 인코딩된 배열 등) 저장용
+    @Bean
+    public RedisTemplate<String, byte[]> byteRedisTemplate(RedisConnectionFactory connectionFactory){
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>() {
+            @Override
+            public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+                long start = System.nanoTime();
+                try {
+                    return super.execute(action, exposeConnection, pipeline);
+                } finally {
+                    RequestTiming.record(Stage.REDIS, start);
+                }
+            }
+        };
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
 
         return template;
     }
+
+    //노드 간 L1 캐시 무효화 메시지 구독용
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory){
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
@@ -0,0 +1,31 @@
+package SteamGame.recommend.config;
+
+import SteamGame.recommend.utils.RequestTiming;
+import SteamGame.recommend.utils.RequestTiming.Stage;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+//Spring Data 리포지토리 프록시에 인터셉터를 하나 더 붙여 호출마다 요청별 DB 시간을 기록
+//리포지토리를 거치지 않는 쿼리(인덱스 적재 등)는 요청 스레드 밖이므로 대상이 아님
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+    private static final MethodInterceptor TIMING = invocation -> {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            RequestTiming.record(Stage.DB, start);
+        }
+    };
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository<?, ?> && bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(TIMING);
+        }
+        return bean;
+    }
+}
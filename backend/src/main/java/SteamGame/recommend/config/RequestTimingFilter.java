@@ -0,0 +1,80 @@
+package SteamGame.recommend.config;
+
+import SteamGame.recommend.utils.RequestTiming;
+import SteamGame.recommend.utils.RequestTiming.Stage;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+//API 요청마다 구간 기록(RequestTiming)을 요청 스레드에 묶음
+//Server-Timing 헤더는 본문을 쓰기 직전(ServerTimingAdvice)에 붙이고, 임계값을 넘은 요청은 구간별 내역을 로그로 남김
+//속도 제한 / API 키 검사 시간도 total에 들어가도록 보안 필터보다 앞에 둠
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private final long slowThresholdNanos;
+
+    public RequestTimingFilter(@Value("${app.timing.slow-request-threshold:1s}") Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    //CompletableFuture를 반환하는 추천 API는 결과가 나오면 비동기 디스패치로 다시 들어오므로 그때도 기록을 묶음
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req,
+                                    HttpServletResponse res,
+                                    FilterChain chain)
+            throws ServletException, IOException
+    {
+        RequestTiming timing = isAsyncDispatch(req) ? (RequestTiming) req.getAttribute(RequestTiming.ATTRIBUTE) : null;
+        if (timing == null) {
+            timing = new RequestTiming();
+            req.setAttribute(RequestTiming.ATTRIBUTE, timing);
+        }
+        RequestTiming previous = RequestTiming.bind(timing);
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            RequestTiming.restore(previous);
+            //비동기 처리가 시작됐으면 응답은 비동기 디스패치에서 끝나므로 그때 한 번만 로그
+            long elapsed = timing.elapsedNanos();
+            if (!isAsyncStarted(req) && elapsed >= slowThresholdNanos) {
+                logSlowRequest(req, res, timing, elapsed);
+            }
+        }
+    }
+
+    //key=value 한 줄 (검색/집계용)
+    private void logSlowRequest(HttpServletRequest req, HttpServletResponse res, RequestTiming timing, long elapsed) {
+        String query = req.getQueryString();
+        log.warn("slow_request method={} uri=\"{}\" status={} total_ms={} steam_ms={} steam_calls={} db_ms={} db_calls={} "
+                        + "redis_ms={} redis_calls={} gemini_ms={} gemini_calls={} tags={}",
+                req.getMethod(), query == null ? req.getRequestURI() : req.getRequestURI() + "?" + query, res.getStatus(),
+                RequestTiming.millis(elapsed),
+                RequestTiming.millis(timing.nanos(Stage.STEAM)), timing.calls(Stage.STEAM),
+                RequestTiming.millis(timing.nanos(Stage.DB)), timing.calls(Stage.DB),
+                RequestTiming.millis(timing.nanos(Stage.REDIS)), timing.calls(Stage.REDIS),
+                RequestTiming.millis(timing.nanos(Stage.GEMINI)), timing.calls(Stage.GEMINI),
+                timing.usedTags());
+    }
+}
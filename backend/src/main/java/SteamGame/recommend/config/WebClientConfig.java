@@ -1,15 +1,67 @@
 package SteamGame.recommend.config;
 
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
-//현재 사용 X
+import java.util.ArrayList;
+import java.util.List;
+
+//업스트림별로 미리 만들어 둔 WebClient (요청마다 build() 하지 않음)
+//풀 사용량: reactor.netty.connection.provider.* (name 태그), 지연/오류: http.client.requests (client.name 태그)
+@Slf4j
 @Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
 public class WebClientConfig {
+    private final List<HttpClient> httpClients = new ArrayList<>();
 
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient steamWebClient(WebClient.Builder builder, OutboundHttpProperties properties) {
+        return build(builder, "steam", properties.getSteam());
+    }
+
+    @Bean
+    public WebClient geminiWebClient(WebClient.Builder builder, OutboundHttpProperties properties) {
+        return build(builder, "gemini", properties.getGemini());
+    }
+
+    private WebClient build(WebClient.Builder builder, String name, OutboundHttpProperties.Upstream upstream) {
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(upstream.getMaxConnections())
+                .pendingAcquireTimeout(upstream.getPendingAcquireTimeout())
+                .maxIdleTime(upstream.getMaxIdleTime())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) upstream.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(upstream.getResponseTimeout());
+        httpClients.add(httpClient);
+
+        int maxResponseSize = (int) upstream.getMaxResponseSize().toBytes();
+        return builder.clone()
+                .baseUrl(upstream.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseSize))
+                .build();
+    }
+
+    //이벤트 루프, DNS 리졸버 등을 첫 요청 전에 미리 초기화
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (HttpClient httpClient : httpClients) {
+            httpClient.warmup().block();
+        }
+        log.info("외부 API 클라이언트 {}개 워밍업 완료", httpClients.size());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package SteamGame.recommend.config.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Refill;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+//경로별 요청 제한 정책. routes는 선언 순서대로 먼저 매칭된 것을 사용
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    //클라이언트(IP)별 버킷 최대 보관 수, 초과 시 오래 안 쓴 것부터 제거
+    private long maxClients = 50_000;
+    //이 시간 동안 요청이 없으면 버킷 제거 (가장 긴 리필 주기보다 짧으면 리필 주기로 늘림)
+    private Duration idleTimeout = Duration.ofMinutes(30);
+    //경로 -> 정책 매칭 결과 캐시 크기
+    private long maxCachedPaths = 10_000;
+    private Policy defaultPolicy = new Policy();
+    private List<Policy> routes = new ArrayList<>();
+
+    public enum RefillType { GREEDY, INTERVALLY }
+
+    @Getter @Setter
+    public static class Policy {
+        private String pattern = "/**";
+        private long capacity = 60;
+        private long refillTokens = 2;
+        private Duration refillPeriod = Duration.ofSeconds(1);
+        private RefillType refill = RefillType.GREEDY;
+        //true면 인스턴스별 버킷에 더해 Redis 버킷으로 클러스터 전체 한도도 적용
+        private boolean distributed = false;
+
+        Bandwidth toBandwidth() {
+            Refill r = refill == RefillType.GREEDY
+                    ? Refill.greedy(refillTokens, refillPeriod)
+                    : Refill.intervally(refillTokens, refillPeriod);
+            return Bandwidth.classic(capacity, r);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package SteamGame.recommend.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//설정된 패턴을 미리 분류해 둔 경로 -> 정책 테이블
+//정확 경로는 해시 조회, "/prefix/**"는 접두사 비교, 그 외 패턴만 AntPathMatcher 사용
+//결과는 경로별로 캐시하므로 같은 경로는 한 번만 계산
+final class RateLimitRoutes {
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<RateLimitProperties.Policy> policies;
+    private final RateLimitProperties.Policy defaultPolicy;
+    private final Map<String, Integer> exact = new HashMap<>();
+    private final List<Prefix> prefixes = new ArrayList<>();
+    private final List<Prefix> patterns = new ArrayList<>();
+    private final Cache<String, Integer> resolved;
+
+    private record Prefix(String value, int index) {
+    }
+
+    RateLimitRoutes(RateLimitProperties properties) {
+        this.policies = List.copyOf(properties.getRoutes());
+        this.defaultPolicy = properties.getDefaultPolicy();
+        for (int i = 0; i < policies.size(); i++) {
+            String pattern = policies.get(i).getPattern();
+            if (!matcher.isPattern(pattern)) {
+                exact.putIfAbsent(pattern, i);
+            } else if (pattern.endsWith("/**") && !matcher.isPattern(pattern.substring(0, pattern.length() - 3))) {
+                prefixes.add(new Prefix(pattern.substring(0, pattern.length() - 3), i));
+            } else {
+                patterns.add(new Prefix(pattern, i));
+            }
+        }
+        this.resolved = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedPaths())
+                .build();
+    }
+
+    //정책 번호 (routes 인덱스, 기본 정책은 -1)
+    int resolve(String path) {
+        return resolved.get(path, this::match);
+    }
+
+    RateLimitProperties.Policy policy(int index) {
+        return index < 0 ? defaultPolicy : policies.get(index);
+    }
+
+    //선언 순서상 가장 앞선 정책을 고름 (기존 LinkedHashMap 첫 매칭과 동일)
+    private int match(String path) {
+        int best = exact.getOrDefault(path, Integer.MAX_VALUE);
+        for (Prefix prefix : prefixes) {
+            if (prefix.index() < best && (path.equals(prefix.value()) || path.startsWith(prefix.value() + "/"))) {
+                best = prefix.index();
+            }
+        }
+        for (Prefix pattern : patterns) {
+            if (pattern.index() < best && matcher.match(pattern.value(), path)) {
+                best = pattern.index();
+            }
+        }
+        return best == Integer.MAX_VALUE ? -1 : best;
+    }
+}
@@ -1,44 +1,65 @@
 package SteamGame.recommend.config.security;
 
-import io.github.bucket4j.Bandwidth;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import SteamGame.recommend.service.application.QuotaService;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+//클라이언트(IP) x 정책별 버킷. 버킷은 크기/유휴 시간 제한이 있는 Caffeine 캐시에 보관
 @Component
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class RateLimitingFilter extends OncePerRequestFilter {
-    private final AntPathMatcher matcher = new AntPathMatcher();
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
 
-    //gemini api는 30분에 3번 (수정될 수 있음) , 나머지는 2초에 한번씩
-    private final Map<String, Bucket> buckets = new LinkedHashMap<>() {{
-        // 1) 정확 매칭: /api/recommend/input
-        put("/api/recommend/input", Bucket.builder()
-                .addLimit(Bandwidth.classic(3, Refill.greedy(3, Duration.ofMinutes(30))))
-                .build()
-        );
-        // 2) 와일드카드: /api/recommend/** (input 제외한 나머지)
-        put("/api/recommend/**", Bucket.builder()
-                .addLimit(Bandwidth.classic(1, Refill.intervally(1, Duration.ofSeconds(2))))
-                .build()
-        );
-    }};
+    private final RateLimitRoutes routes;
+    private final Cache<String, Bucket> buckets;
+    private final QuotaService quotaService;
+    //정책별 거절 수 (0번은 기본 정책, i + 1번은 routes[i])
+    private final Counter[] localRejections;
+    private final Counter[] distributedRejections;
 
-    //그 외 1초에 2번씩
-    private final Bucket defaultBucket = Bucket.builder()
-            .addLimit(Bandwidth.classic(60, Refill.greedy(2, Duration.ofSeconds(1))))
-            .build();
+    public RateLimitingFilter(RateLimitProperties properties, QuotaService quotaService, MeterRegistry meterRegistry) {
+        this.quotaService = quotaService;
+        this.routes = new RateLimitRoutes(properties);
+
+        int policies = properties.getRoutes().size() + 1;
+        this.localRejections = new Counter[policies];
+        this.distributedRejections = new Counter[policies];
+        for (int i = 0; i < policies; i++) {
+            String route = i == 0 ? "default" : routes.policy(i - 1).getPattern();
+            localRejections[i] = rejectionCounter(meterRegistry, route, "local");
+            distributedRejections[i] = rejectionCounter(meterRegistry, route, "distributed");
+        }
+
+        //버킷이 다 차기 전에 제거되면 제한이 풀리므로 유휴 시간은 최소 가장 긴 리필 주기
+        Duration idle = properties.getIdleTimeout();
+        Duration longestRefill = properties.getRoutes().stream()
+                .map(RateLimitProperties.Policy::getRefillPeriod)
+                .reduce(properties.getDefaultPolicy().getRefillPeriod(), (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        if (idle.compareTo(longestRefill) < 0) {
+            idle = longestRefill;
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(idle)
+                .build();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest req,
@@ -46,23 +67,57 @@ public class RateLimitingFilter extends OncePerRequestFilter {
                                     FilterChain chain)
             throws ServletException, IOException
     {
-        String path = req.getRequestURI();
+        int policyIndex = routes.resolve(req.getRequestURI());
 
-        // 요청 경로에 매칭되는 첫 번째 패턴을 찾아서 그 Bucket을 사용
-        Bucket bucket = buckets.entrySet().stream()
-                .filter(e -> matcher.match(e.getKey(), path))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElse(defaultBucket);
+        //API 키는 모든 클라이언트가 같은 값을 쓰므로 접속 IP로 구분
+        //X-Client-Id처럼 클라이언트가 바꿀 수 있는 값은 쓰지 않음, 프록시 뒤에서는 server.forward-headers-strategy로 실제 IP
+        //인스턴스 버킷과 Redis 할당량이 같은 클라이언트 키를 써야 두 제한이 같은 대상을 셈
+        String client = req.getRemoteAddr();
+        String key = policyIndex + "|" + client;
+        Bucket bucket = buckets.get(key, k -> Bucket.builder()
+                .addLimit(routes.policy(policyIndex).toBandwidth())
+                .build());
 
-        if (bucket.tryConsume(1)) {
-            chain.doFilter(req, res);
-        } else {
-            res.setStatus(429);
-            res.setCharacterEncoding("UTF-8");
-            res.setContentType(MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8");
-            res.getWriter().write("{\"status\":429, \"error\":\"요청 속도가 너무 빠릅니다!\"}");
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (!probe.isConsumed()) {
+            localRejections[policyIndex + 1].increment();
+            reject(res, TimeUnit.NANOSECONDS.toMillis(probe.getNanosToWaitForRefill()));
+            return;
+        }
 
+        //인스턴스 버킷을 통과한 요청만 Redis 확인 (대부분의 거절은 로컬에서 끝남)
+        RateLimitProperties.Policy policy = routes.policy(policyIndex);
+        long remaining = probe.getRemainingTokens();
+        if (policy.isDistributed()) {
+            QuotaService.Quota quota = quotaService.tryConsume(
+                    "route:" + policy.getPattern() + ":" + client,
+                    policy.getCapacity(), policy.getRefillTokens(), policy.getRefillPeriod());
+            if (!quota.allowed()) {
+                distributedRejections[policyIndex + 1].increment();
+                reject(res, quota.retryAfterMillis());
+                return;
+            }
+            if (quota.remaining() >= 0) {
+                remaining = Math.min(remaining, quota.remaining());
+            }
         }
+        res.setHeader(REMAINING_HEADER, String.valueOf(remaining));
+        chain.doFilter(req, res);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String route, String scope) {
+        return Counter.builder("ratelimit.rejections")
+                .tag("route", route)
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private void reject(HttpServletResponse res, long retryAfterMillis) throws IOException {
+        res.setStatus(429);
+        res.setHeader(REMAINING_HEADER, "0");
+        res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis))));
+        res.setCharacterEncoding("UTF-8");
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8");
+        res.getWriter().write("{\"status\":429, \"error\":\"요청 속도가 너무 빠릅니다!\"}");
     }
 }
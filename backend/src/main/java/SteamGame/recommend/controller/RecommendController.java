@@ -3,48 +3,159 @@ package SteamGame.recommend.controller;
 import SteamGame.recommend.dto.SteamDTO;
 
 import SteamGame.recommend.service.application.RecommendService;
+import SteamGame.recommend.service.tag.TagSearchIndex;
+import SteamGame.recommend.service.tag.TagSnapshotService;
+import SteamGame.recommend.utils.ClientIdentifier;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
 public class RecommendController {
 
+    private static final CacheControl TAGS_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic().mustRevalidate();
+
+    private static final int MAX_BATCH_COUNT = 10;
+
     private final RecommendService recommendService;
+    private final TagSnapshotService tagSnapshotService;
+    private final TagSearchIndex tagSearchIndex;
 
-    public RecommendController(RecommendService recommendService) {
+    public RecommendController(RecommendService recommendService, TagSnapshotService tagSnapshotService,
+                               TagSearchIndex tagSearchIndex) {
         this.recommendService = recommendService;
+        this.tagSnapshotService = tagSnapshotService;
+        this.tagSearchIndex = tagSearchIndex;
     }
 
+    //추천 API는 CompletableFuture를 반환해 Servlet 비동기로 처리 (Steam/Gemini 응답을 기다리는 동안 Tomcat 스레드 반환)
     @GetMapping("/recommend/random")
-    public SteamDTO.SteamApp randomGame(
+    public CompletableFuture<SteamDTO.SteamApp> randomGame(
+            @RequestParam String[] tags,
+            @RequestParam int review,
+            @RequestParam(defaultValue = "false") boolean korean_check,
+            @RequestParam(required = false) Boolean free_check,
+            HttpServletRequest request) {
+        return recommendService.findGameAsync(ClientIdentifier.resolve(request), tags, review, korean_check, free_check);
+    }
+
+    @GetMapping("/recommend/random/batch")
+    public CompletableFuture<List<SteamDTO.SteamApp>> randomGames(
             @RequestParam String[] tags,
             @RequestParam int review,
             @RequestParam(defaultValue = "false") boolean korean_check,
-            @RequestParam(required = false) Boolean free_check) {
-        return recommendService.findGame(tags, review, korean_check, free_check);
+            @RequestParam(required = false) Boolean free_check,
+            @RequestParam(defaultValue = "5") int count,
+            HttpServletRequest request) {
+        return recommendService.findGamesAsync(ClientIdentifier.resolve(request), tags, review, korean_check, free_check,
+                Math.max(1, Math.min(count, MAX_BATCH_COUNT)));
+    }
+
+    @GetMapping("/recommend/similar")
+    public CompletableFuture<List<SteamDTO.SteamApp>> similarGames(
+            @RequestParam long appid,
+            @RequestParam(defaultValue = "0") int review,
+            @RequestParam(defaultValue = "false") boolean korean_check,
+            @RequestParam(required = false) Boolean free_check,
+            @RequestParam(defaultValue = "5") int count,
+            HttpServletRequest request) {
+        return recommendService.findSimilarGamesAsync(ClientIdentifier.resolve(request), appid, review, korean_check, free_check,
+                Math.max(1, Math.min(count, MAX_BATCH_COUNT)));
     }
 
     @PostMapping("/recommend/input")
-    public SteamDTO.RecommendationResult inputRandomGame(
-            @RequestBody Map<String, String> body) {
-        return recommendService.selectInfo(body.get("input"));
+    public CompletableFuture<SteamDTO.RecommendationResult> inputRandomGame(
+            @RequestBody Map<String, String> body, HttpServletRequest request) {
+        return recommendService.selectInfoAsync(ClientIdentifier.resolve(request), body.get("input"));
     }
 
     @PostMapping("/recommend/profile")
-    public SteamDTO.RecommendationResult randomGameByProfile(@RequestBody Map<String,String> body) {
-        return recommendService.recommendByProfile(body.get("steamId"));
+    public CompletableFuture<SteamDTO.RecommendationResult> randomGameByProfile(@RequestBody Map<String,String> body, HttpServletRequest request) {
+        return recommendService.recommendByProfileAsync(ClientIdentifier.resolve(request), body.get("steamId"));
     }
 
     @PostMapping("/recommend/RecentPlay")
-    public SteamDTO.RecommendationResult randomGameByRecentPlay(@RequestBody Map<String,String> body){
-        return recommendService.recommendByRecentPlay(body.get("steamId"));
+    public CompletableFuture<SteamDTO.RecommendationResult> randomGameByRecentPlay(@RequestBody Map<String,String> body, HttpServletRequest request){
+        return recommendService.recommendByRecentPlayAsync(ClientIdentifier.resolve(request), body.get("steamId"));
     }
 
+    //미리 직렬화한 스냅샷을 그대로 내려줌. 인코딩별로 표현이 다르므로 gzip은 별도 ETag
     @GetMapping("/tags")
-    public List<String> getTags(){
-        return recommendService.getTags();
+    public ResponseEntity<byte[]> getTags(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest){
+        TagSnapshotService.Snapshot snapshot = tagSnapshotService.current();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = "\"" + snapshot.etag() + (gzip ? "-gzip" : "") + "\"";
+
+        //304도 200과 같은 캐시 헤더를 실어야 중간 캐시가 압축별 항목을 갱신함
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(TAGS_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(TAGS_CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    //태그 자동완성 (접두사/중간 일치, 초성 검색 지원)
+    @GetMapping("/tags/search")
+    public List<SteamDTO.TagSuggestion> searchTags(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return tagSearchIndex.search(q, Math.max(1, Math.min(limit, TagSearchIndex.MAX_LIMIT)));
+    }
+
+    //Accept-Encoding에서 gzip의 q 값 확인 ("gzip;q=0"은 거부, 명시가 없으면 "*"를 따름)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQuality = -1;
+        double anyQuality = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].strip().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].strip();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).strip());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                anyQuality = Math.max(anyQuality, quality);
+            }
+        }
+        return (gzipQuality >= 0 ? gzipQuality : anyQuality) > 0;
     }
-}
\ No newline at end of file
+}
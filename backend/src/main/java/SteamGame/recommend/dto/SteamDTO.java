@@ -32,6 +32,10 @@ public class SteamDTO {
         private String steamStore;
     }
 
+    //보유/최근 플레이 게임 (appid 오름차순, 같은 위치에 플레이 시간(분))
+    public record PlayedGames(long[] appids, long[] playtimeMinutes) {
+    }
+
     //태그와 게임 정보 함께 반환하기 -> 우선 SteamDTO에 함께 둠.
     @AllArgsConstructor @NoArgsConstructor
     @Getter @Setter
@@ -39,4 +43,12 @@ public class SteamDTO {
         private List<String> usedTags;
         private SteamApp recommendedGame;
     }
-}
\ No newline at end of file
+
+    //태그 자동완성 결과 (해당 태그가 붙은 게임 수 순)
+    @AllArgsConstructor
+    @Getter
+    public static class TagSuggestion {
+        private String name;
+        private int gameCount;
+    }
+}
@@ -1,20 +1,35 @@
 package SteamGame.recommend.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+    //매핑 패턴 -> 404 카운터 (패턴 수만큼만 생기므로 크기 제한 없음, 매번 레지스트리 조회하지 않도록 보관)
+    private final Map<String, Counter> notFoundCounters = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex, HttpServletRequest request) {
         log.error("Unhandled exception", ex);
@@ -29,12 +44,39 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
     }
 
+    //할당량 소진은 재시도 가능 시각을 함께 알려줌
+    @ExceptionHandler(QuotaExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleQuotaExceeded(
+            QuotaExceededException ex,
+            HttpServletRequest request) {
+        long retryAfter = Math.max(1, (ex.getRetryAfterMillis() + 999) / 1000);
+        return ResponseEntity.status(ex.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(handleResponseStatus(ex, request).getBody());
+    }
+
+    //블로킹 작업 풀이 가득 찼거나 비동기 응답 시간 초과: 잠시 후 재시도
+    @ExceptionHandler({RejectedExecutionException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<Map<String, Object>> handleOverloaded(
+            RuntimeException ex,
+            HttpServletRequest request) {
+        log.warn("요청 처리 지연/거절: {}", ex.toString());
+        ResponseStatusException unavailable = new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(handleResponseStatus(unavailable, request).getBody());
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<Map<String, Object>> handleResponseStatus(
             ResponseStatusException ex,
             HttpServletRequest request) {
 
         HttpStatus status = (HttpStatus) ex.getStatusCode();
+        if (status == HttpStatus.NOT_FOUND) {
+            countNotFound(request);
+        }
 
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
@@ -45,4 +87,12 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(status).body(body);
     }
+
+    //추천 결과 없음(404)을 엔드포인트별로 셈. 실제 경로 대신 매핑 패턴을 태그로 써서 태그 값 수를 제한
+    private void countNotFound(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern == null ? "UNKNOWN" : pattern.toString();
+        notFoundCounters.computeIfAbsent(endpoint, e -> meterRegistry.counter("recommend.not_found", "endpoint", e))
+                .increment();
+    }
 }
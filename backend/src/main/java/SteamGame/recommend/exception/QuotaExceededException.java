@@ -0,0 +1,20 @@
+package SteamGame.recommend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+//클러스터 전체 할당량(Redis 토큰 버킷) 소진
+public class QuotaExceededException extends ResponseStatusException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterMillis;
+
+    public QuotaExceededException(String reason, long retryAfterMillis) {
+        super(HttpStatus.TOO_MANY_REQUESTS, reason);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,47 @@
+package SteamGame.recommend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+//인메모리 인덱스 적재용 대량 조회 (엔티티를 만들지 않고 컬럼만 스트리밍)
+@Repository
+public class CatalogJdbcRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public CatalogJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        //MySQL Connector/J는 fetchSize가 Integer.MIN_VALUE일 때 결과를 한 행씩 스트리밍함
+        this.streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    //리뷰 수 내림차순 -> 인덱스에서 리뷰 조건을 ordinal 범위로 처리
+    public void streamGames(RowCallbackHandler handler) {
+        streamingTemplate.query("""
+            SELECT g.id, g.appid, g.review_count, g.korean_support, g.is_free
+              FROM games g
+             ORDER BY g.review_count DESC, g.id
+        """, handler);
+    }
+
+    public void streamTags(RowCallbackHandler handler) {
+        streamingTemplate.query("SELECT t.id, t.name FROM tags t", handler);
+    }
+
+    //태그 변경 감지용 (크롤러는 INSERT만 하므로 개수와 최대 id로 충분)
+    public String tagVersion() {
+        return jdbcTemplate.queryForObject("SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(t.id), 0)) FROM tags t", String.class);
+    }
+
+    public void streamGameTags(RowCallbackHandler handler) {
+        streamingTemplate.query("SELECT gt.game_id, gt.tag_id FROM game_tags gt", handler);
+    }
+
+    public void streamCooccurrences(RowCallbackHandler handler) {
+        streamingTemplate.query("SELECT c.tag1, c.tag2, c.count FROM tag_cooccurrence c", handler);
+    }
+}
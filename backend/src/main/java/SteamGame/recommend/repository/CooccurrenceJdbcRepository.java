@@ -0,0 +1,139 @@
+package SteamGame.recommend.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+//tag_cooccurrence 재계산용 JDBC 작업 (섀도 테이블에 적재 후 RENAME으로 교체)
+@Repository
+public class CooccurrenceJdbcRepository {
+    private static final String LIVE_TABLE = "tag_cooccurrence";
+    private static final String SHADOW_TABLE = "tag_cooccurrence_shadow";
+    private static final String OLD_TABLE = "tag_cooccurrence_old";
+    private static final String LOCK_NAME = "tag_cooccurrence_recompute";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public CooccurrenceJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    //클러스터 전체에서 한 노드만 job을 실행 (MySQL GET_LOCK, 다른 노드가 잡고 있으면 기다리지 않고 false)
+    //잠금은 이 커넥션에 묶여 있으므로 job이 끝날 때까지 커넥션을 쥐고 있고, 노드가 죽으면 커넥션과 함께 풀림
+    public boolean runExclusively(Runnable job) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                lock.setString(1, LOCK_NAME);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        return false;
+                    }
+                }
+            }
+            try {
+                job.run();
+                return true;
+            } finally {
+                try (PreparedStatement release = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    release.setString(1, LOCK_NAME);
+                    release.execute();
+                }
+            }
+        }));
+    }
+
+    //반영을 마친 마지막 game_tag_changes.id (-1이면 전체 재계산 필요)
+    public long findWatermark() {
+        Long watermark = jdbcTemplate.queryForObject("SELECT watermark FROM cooccurrence_state WHERE id = 1", Long.class);
+        return watermark == null ? -1L : watermark;
+    }
+
+    //expected일 때만 바꿈. 다른 노드가 먼저 바꿨으면 false
+    public boolean updateWatermark(long expected, long next) {
+        return jdbcTemplate.update("UPDATE cooccurrence_state SET watermark = ? WHERE id = 1 AND watermark = ?",
+                next, expected) == 1;
+    }
+
+    public void resetWatermark() {
+        jdbcTemplate.update("UPDATE cooccurrence_state SET watermark = -1 WHERE id = 1");
+    }
+
+    //game_tags 변경 기록(트리거가 남김)의 마지막 id, 없으면 0
+    public long findLastChangeId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(c.id) FROM game_tag_changes c", Long.class);
+        return max == null ? 0L : max;
+    }
+
+    //전체 game_tags를 game_id 순서로 스트리밍 (PK 순서라 정렬 비용 없음)
+    public void streamGameTagsByGame(RowCallbackHandler handler) {
+        streamingTemplate.query("SELECT gt.game_id, gt.tag_id FROM game_tags gt ORDER BY gt.game_id", handler);
+    }
+
+    //(afterId, uptoId] 구간의 변경 (game_id, tag_id, delta), 게임별로 변경 순서대로
+    public void streamChanges(long afterId, long uptoId, RowCallbackHandler handler) {
+        streamingTemplate.query("""
+            SELECT c.game_id, c.tag_id, c.delta
+              FROM game_tag_changes c
+             WHERE c.id > ? AND c.id <= ?
+             ORDER BY c.game_id, c.id
+        """, handler, afterId, uptoId);
+    }
+
+    //(afterId, uptoId] 구간에서 바뀐 게임들의 현재 태그
+    public void streamTagsOfChangedGames(long afterId, long uptoId, RowCallbackHandler handler) {
+        streamingTemplate.query("""
+            SELECT gt.game_id, gt.tag_id
+              FROM game_tags gt
+              JOIN (SELECT DISTINCT c.game_id FROM game_tag_changes c WHERE c.id > ? AND c.id <= ?) changed
+                ON changed.game_id = gt.game_id
+             ORDER BY gt.game_id
+        """, handler, afterId, uptoId);
+    }
+
+    //반영을 마친 변경 기록 삭제. 마지막 행은 남겨 AUTO_INCREMENT가 watermark 아래로 돌아가지 않게 함
+    //(MySQL 5.7은 재시작 시 AUTO_INCREMENT를 MAX(id) + 1로 다시 잡음)
+    public void deleteChangesBefore(long uptoId) {
+        jdbcTemplate.update("DELETE FROM game_tag_changes WHERE id < ?", uptoId);
+    }
+
+    public void prepareShadow() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + SHADOW_TABLE + " LIKE " + LIVE_TABLE);
+        jdbcTemplate.execute("TRUNCATE TABLE " + SHADOW_TABLE);
+    }
+
+    public void upsertShadow(List<Object[]> rows, int batchSize) {
+        batchUpsert(SHADOW_TABLE, "count = VALUES(count)", rows, batchSize);
+    }
+
+    //증분 반영: 바뀐 게임에서 나온 쌍 수의 증감을 라이브 테이블에 더하고 0 이하가 된 쌍은 지움 (행 단위 잠금만 사용)
+    public void applyLiveDeltas(List<Object[]> rows, int batchSize) {
+        batchUpsert(LIVE_TABLE, "count = count + VALUES(count)", rows, batchSize);
+        if (rows.stream().anyMatch(row -> (Integer) row[2] < 0)) {
+            jdbcTemplate.update("DELETE FROM " + LIVE_TABLE + " WHERE count <= 0");
+        }
+    }
+
+    //RENAME TABLE은 여러 테이블을 한 번에 원자적으로 바꿈
+    public void swapShadow() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + OLD_TABLE);
+        jdbcTemplate.execute("RENAME TABLE " + LIVE_TABLE + " TO " + OLD_TABLE + ", "
+                + SHADOW_TABLE + " TO " + LIVE_TABLE);
+        jdbcTemplate.execute("DROP TABLE " + OLD_TABLE);
+    }
+
+    private void batchUpsert(String table, String onDuplicate, List<Object[]> rows, int batchSize) {
+        String sql = "INSERT INTO " + table + " (tag1, tag2, count) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE " + onDuplicate;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+}
@@ -6,24 +6,34 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
+    //인메모리 인덱스가 없을 때의 DB 추천 경로 (ORDER BY RAND() 대신 무작위 키 seek)
+    //가장 드문 태그(driverTagId)의 (tag_id, rand_key, game_id) 인덱스에서 fromKey 이후 최대 scanLimit개만 읽고
+    //그중 나머지 태그(PK (game_id, tag_id)로 확인)와 조건을 만족하는 첫 게임 하나 -> 조건이 드물어도 훑는 양이 고정됨
     @Query(value = """
-        SELECT g.* FROM games g
-        JOIN game_tags gt ON g.id = gt.game_id
-        JOIN tags t ON t.id = gt.tag_id
-        WHERE t.name IN :tagNames
-            AND g.review_count >= :review
+        SELECT g.* FROM (
+            SELECT gt.game_id, gt.rand_key FROM game_tags gt
+            WHERE gt.tag_id = :driverTagId
+                AND gt.rand_key >= :fromKey AND gt.rand_key < :toKey
+            ORDER BY gt.rand_key
+            LIMIT :scanLimit
+        ) s
+        JOIN games g ON g.id = s.game_id
+        WHERE g.review_count >= :review
             AND (:korean_check = false OR g.korean_support = true)
             AND (:free IS NULL OR g.is_free = :free)
-        GROUP BY g.id
-        HAVING COUNT(DISTINCT t.name) = :tagCount
-        ORDER BY RAND()
+            AND g.appid NOT IN :excluded
+            AND (SELECT COUNT(*) FROM game_tags o WHERE o.game_id = s.game_id AND o.tag_id IN :tagIds) = :tagCount
+        ORDER BY s.rand_key
         LIMIT 1
     """, nativeQuery = true)
-    Optional<Game> findRandomGameByTags(@Param("tagNames") List<String> tagNames, @Param("tagCount") long tagCount, @Param("review") int review, @Param("korean_check") boolean korean_check,@Param("free") Boolean free);
+    Optional<Game> seekRandomGameByTagIds(@Param("driverTagId") long driverTagId, @Param("tagIds") Collection<Long> tagIds, @Param("tagCount") long tagCount, @Param("fromKey") double fromKey, @Param("toKey") double toKey, @Param("review") int review, @Param("korean_check") boolean korean_check, @Param("free") Boolean free, @Param("excluded") Collection<Long> excluded, @Param("scanLimit") int scanLimit);
 
+    @Query(value = "SELECT COUNT(*) FROM game_tags gt WHERE gt.tag_id = :tagId", nativeQuery = true)
+    long countByTagId(@Param("tagId") long tagId);
 }
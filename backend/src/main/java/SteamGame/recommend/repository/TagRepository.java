@@ -7,6 +7,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TagRepository extends JpaRepository<Tag,Long> {
@@ -19,5 +20,7 @@ public interface TagRepository extends JpaRepository<Tag,Long> {
     """)
     List<String> findTagNamesByAppIds(@Param("appids") List<Long> appids);
 
+    List<Tag> findByNameIn(Collection<String> names);
+
     Page<Tag> findByNameContainingIgnoreCase(String keyword, Pageable pageable);
 }
@@ -1,5 +1,10 @@
 package SteamGame.recommend.service.api;
 
+import SteamGame.recommend.exception.QuotaExceededException;
+import SteamGame.recommend.service.application.QuotaService;
+import SteamGame.recommend.utils.RequestTiming;
+import SteamGame.recommend.utils.RequestTiming.Stage;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
@@ -13,16 +18,38 @@ import java.util.Map;
 
 @Service
 public class GeminiApiService {
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient geminiWebClient;
     private final String gemini_api_key;
-    private final String GEMINI_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent";
+    private final String GEMINI_PATH = "/v1beta/models/gemini-2.0-flash:generateContent";
+    private final QuotaService quotaService;
+    private final long quotaCapacity;
+    private final long quotaRefillTokens;
+    private final Duration quotaRefillPeriod;
 
-    public GeminiApiService(WebClient.Builder webClientBuilder, @Value("${spring.ai.google.api-key}") String gemini_api_key){
-        this.webClientBuilder = webClientBuilder;
+    public GeminiApiService(@Qualifier("geminiWebClient") WebClient geminiWebClient, @Value("${spring.ai.google.api-key}") String gemini_api_key,
+                            QuotaService quotaService,
+                            @Value("${app.quota.gemini.capacity:15}") long quotaCapacity,
+                            @Value("${app.quota.gemini.refill-tokens:15}") long quotaRefillTokens,
+                            @Value("${app.quota.gemini.refill-period:1m}") Duration quotaRefillPeriod){
+        this.geminiWebClient = geminiWebClient;
         this.gemini_api_key = gemini_api_key;
+        this.quotaService = quotaService;
+        this.quotaCapacity = quotaCapacity;
+        this.quotaRefillTokens = quotaRefillTokens;
+        this.quotaRefillPeriod = quotaRefillPeriod;
     }
 
-    public String getGeminiAnswer(String input){
+    //API 키 하나를 모든 인스턴스가 나눠 쓰므로 호출 전 클러스터 전체 할당량 차감
+    //Redis 왕복(블로킹)이므로 작업 스레드에서 requestAnswer보다 먼저 호출
+    public void consumeQuota() {
+        QuotaService.Quota quota = quotaService.tryConsume("gemini", quotaCapacity, quotaRefillTokens, quotaRefillPeriod);
+        if (!quota.allowed()) {
+            throw new QuotaExceededException("Gemini 호출 할당량을 모두 사용했습니다.", quota.retryAfterMillis());
+        }
+    }
+
+    //할당량 차감 없이 generateContent만 호출 (응답은 Netty 스레드에서 끝나므로 호출 시점의 요청 기록에 남김)
+    public Mono<String> requestAnswer(String input) {
         String prompt = buildPrompt(input);
 
         Map<String,Object> body = Map.of(
@@ -30,9 +57,11 @@ public class GeminiApiService {
                 "generationConfig", Map.of("temperature",1, "maxOutputTokens",8192)
         );
 
-        return webClientBuilder.build()
+        RequestTiming timing = RequestTiming.current();
+        long start = System.nanoTime();
+        return geminiWebClient
                 .post()
-                .uri(GEMINI_URL + "?key=" + gemini_api_key)
+                .uri(GEMINI_PATH + "?key={key}", gemini_api_key)
                 .bodyValue(body)
                 .retrieve()
                 .onStatus(HttpStatusCode::isError, resp ->
@@ -40,7 +69,7 @@ public class GeminiApiService {
                 )
                 .bodyToMono(String.class)
                 .timeout(Duration.ofSeconds(5))
-                .block();
+                .doOnTerminate(() -> RequestTiming.record(timing, Stage.GEMINI, start));
     }
 
     private String buildPrompt(String input) {
@@ -1,97 +1,128 @@
 package SteamGame.recommend.service.api;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import SteamGame.recommend.dto.SteamDTO;
+import SteamGame.recommend.utils.RequestTiming;
+import SteamGame.recommend.utils.RequestTiming.Stage;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 
 @Slf4j
 @Service
 public class SteamApiService {
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient steamWebClient;
     private final String steam_api_key;
     private final ObjectMapper objectMapper;
     private final String STEAM_STORE_URL = "https://store.steampowered.com/app/";
 
-    public SteamApiService(WebClient.Builder webClientBuilder,
+    public SteamApiService(@Qualifier("steamWebClient") WebClient steamWebClient,
                            @Value("${steam.api.key}") String steam_api_key,
                            ObjectMapper objectMapper) {
-        this.webClientBuilder = webClientBuilder;
+        this.steamWebClient = steamWebClient;
         this.steam_api_key = steam_api_key;
         this.objectMapper = objectMapper;
     }
 
-    public List<Long> getOwnedGameIds(String steamId){
-        String response =  webClientBuilder.build()
+    //URI 템플릿으로 호출해야 http.client.requests의 uri 태그가 API별로 나뉨 (key, steamid 값은 태그에 남지 않음)
+    //호출 스레드를 막지 않고, 응답 파싱은 Netty 스레드에서 (스트리밍 파서라 짧음)
+    //playtime_forever(분) 포함
+    public Mono<SteamDTO.PlayedGames> fetchOwnedGames(String steamId){
+        return fetch("/IPlayerService/GetOwnedGames/v1/?key={key}&steamid={steamid}&include_appinfo=false&include_played_free_games=true",
+                steamId, "playtime_forever");
+    }
+
+    //playtime_2weeks(분) 포함
+    public Mono<SteamDTO.PlayedGames> fetchRecentPlayedGames(String steamId){
+        return fetch("/IPlayerService/GetRecentlyPlayedGames/v1/?key={key}&steamid={steamid}&format=json",
+                steamId, "playtime_2weeks");
+    }
+
+    //응답은 Netty 스레드에서 끝나므로 호출 시점의 요청 기록에 Steam 시간을 남김
+    private Mono<SteamDTO.PlayedGames> fetch(String uriTemplate, String steamId, String playtimeField) {
+        RequestTiming timing = RequestTiming.current();
+        long start = System.nanoTime();
+        return steamWebClient
                 .get()
-                .uri(uri -> uri
-                        .scheme("https")
-                        .host("api.steampowered.com")
-                        .path("/IPlayerService/GetOwnedGames/v1/")
-                        .queryParam("key", steam_api_key)
-                        .queryParam("steamid", steamId)
-                        .queryParam("include_appinfo", "false")
-                        .queryParam("include_played_free_games", "true")
-                        .build())
+                .uri(uriTemplate, steam_api_key, steamId)
                 .retrieve()
-                .bodyToMono(String.class)
-                .block();
-        try {
-            JsonNode games = objectMapper
-                    .readTree(response)
-                    .path("response")
-                    .path("games");
+                .onStatus(HttpStatusCode::isError, resp ->
+                        Mono.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Steam API 오류"))
+                )
+                .bodyToMono(DataBuffer.class)
+                .onErrorMap(WebClientRequestException.class, e ->
+                        new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Steam API 응답 지연", e))
+                .doOnTerminate(() -> RequestTiming.record(timing, Stage.STEAM, start))
+                .map(response -> readGames(response, playtimeField))
+                .defaultIfEmpty(new SteamDTO.PlayedGames(new long[0], new long[0]));
+    }
 
-            List<Long> appids = new ArrayList<>();
-            for (JsonNode g : games) {
-                // playtime_forever 필터링도 가능
-                log.info(g.path("appid").toString());
-                appids.add(g.path("appid").asLong());
-            }
+    //트리를 만들지 않고 스트리밍 파서로 response.games[]의 appid와 플레이 시간만 배열에 담음
+    private SteamDTO.PlayedGames readGames(DataBuffer response, String playtimeField) {
+        if (response == null) {
+            return new SteamDTO.PlayedGames(new long[0], new long[0]);
+        }
+        try (InputStream in = response.asInputStream(true);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            long[] appids = new long[256];
+            long[] playtimes = new long[256];
+            int size = 0;
 
-            return appids;
-        } catch (Exception e) {
+            if (!moveToGames(parser)) {
+                return new SteamDTO.PlayedGames(new long[0], new long[0]);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long appid = -1, playtime = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (value == JsonToken.VALUE_NUMBER_INT && "appid".equals(field)) {
+                        appid = parser.getLongValue();
+                    } else if (value == JsonToken.VALUE_NUMBER_INT && playtimeField.equals(field)) {
+                        playtime = Math.max(0, parser.getLongValue());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (appid < 0) {
+                    continue;
+                }
+                if (size == appids.length) {
+                    appids = Arrays.copyOf(appids, size * 2);
+                    playtimes = Arrays.copyOf(playtimes, size * 2);
+                }
+                appids[size] = appid;
+                playtimes[size++] = playtime;
+            }
+            return new SteamDTO.PlayedGames(Arrays.copyOf(appids, size), Arrays.copyOf(playtimes, size));
+        } catch (IOException e) {
             throw new ResponseStatusException(HttpStatus.BAD_GATEWAY,
                     "Steam API 호출 실패", e);
         }
     }
 
-    public List<Long> getRecentPlayedGameIds(String steamId){
-        String json = webClientBuilder.build()
-                .get()
-                .uri(uri -> uri
-                        .scheme("https")
-                        .host("api.steampowered.com")
-                        .path("/IPlayerService/GetRecentlyPlayedGames/v1/")
-                        .queryParam("key", steam_api_key)
-                        .queryParam("steamid", steamId)
-                        .queryParam("format", "json")
-                        .build()
-                )
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-        List<Long> recentAppIds = new ArrayList<>();
-        try {
-            JsonNode games = objectMapper.readTree(json)
-                    .path("response")
-                    .path("games");
-            for (JsonNode g : games) {
-                recentAppIds.add(g.path("appid").asLong());
+    //"games" 배열 시작 위치로 이동, 없으면(비공개 프로필 등) false
+    private boolean moveToGames(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.FIELD_NAME && "games".equals(parser.currentName())) {
+                return parser.nextToken() == JsonToken.START_ARRAY;
             }
-        } catch (Exception e) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_GATEWAY, "Steam API 호출 실패", e);
         }
-
-        return recentAppIds;
+        return false;
     }
 }
@@ -0,0 +1,50 @@
+package SteamGame.recommend.service.application;
+
+import SteamGame.recommend.utils.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//비동기 추천에서 블로킹 작업(JPA, Redis, 할당량 Lua)만 실행하는 크기 제한 스레드 풀
+//Steam/Gemini 응답 대기는 Netty 위에서 이뤄지므로 Tomcat 스레드도, 이 풀의 스레드도 잡지 않음
+//DB 커넥션 수보다 크게 잡아도 처리량은 늘지 않으므로 작게 두고, 큐가 차면 RejectedExecutionException(503)
+//Executor 빈으로 등록하면 Spring Boot 기본 applicationTaskExecutor가 빠지므로 컴포넌트 안에 둠
+@Component
+public class BlockingTaskExecutor {
+    private final ThreadPoolExecutor pool;
+
+    public BlockingTaskExecutor(@Value("${app.async.pool-size:16}") int poolSize,
+                                @Value("${app.async.queue-capacity:256}") int queueCapacity,
+                                MeterRegistry meterRegistry) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "recommend-blocking-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        //executor.active, executor.queued 등 (name=recommend.blocking)
+        new ExecutorServiceMetrics(pool, "recommend.blocking", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    //현재 요청의 구간 기록(RequestTiming)을 작업 스레드에도 묶어 실행하는 Executor
+    //요청 스레드에서 얻어 그 요청의 CompletableFuture 단계에만 사용
+    public Executor forCurrentRequest() {
+        return RequestTiming.propagating(pool);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
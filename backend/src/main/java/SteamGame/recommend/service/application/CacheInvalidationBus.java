@@ -0,0 +1,57 @@
+package SteamGame.recommend.service.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+//노드 간 L1 캐시 무효화 (Redis pub/sub). 메시지: 보낸 노드|구역|키
+//pub/sub는 유실될 수 있으므로 L1 TTL이 최종 안전장치
+@Slf4j
+@Component
+public class CacheInvalidationBus implements MessageListener {
+    private static final String CHANNEL = "cache:invalidate";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, NearCache<?>> caches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(RedisTemplate<String, String> redisTemplate,
+                                RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    void register(NearCache<?> cache) {
+        caches.put(cache.namespace(), cache);
+    }
+
+    //다른 노드에 이 키의 L1 값을 버리라고 알림 (실패해도 요청은 계속 진행)
+    void publish(String namespace, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "|" + namespace + "|" + key);
+        } catch (Exception e) {
+            log.warn("캐시 무효화 메시지 발행 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        NearCache<?> cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidate(parts[2]);
+        }
+    }
+}
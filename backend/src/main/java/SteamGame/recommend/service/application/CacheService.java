@@ -1,43 +1,183 @@
 package SteamGame.recommend.service.application;
 
+import SteamGame.recommend.config.NearCacheProperties;
+import SteamGame.recommend.service.index.GameTagIndex;
+import SteamGame.recommend.service.index.GameTagSnapshot;
+import SteamGame.recommend.utils.TagListCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+//Redis(L2) 앞에 노드 로컬 L1을 둔 2단 캐시
+//gemini 태그 결과는 불변(IMMUTABLE), 추천 이력은 쓰기 즉시 반영(WRITE_THROUGH) + 다른 노드 무효화
 @Service
+@EnableConfigurationProperties(NearCacheProperties.class)
 public class CacheService {
     private final RedisTemplate<String, String> redisTemplate;
+    private final RedisBinaryStore binaryStore;
+    private final GameTagIndex gameTagIndex;
+    private final CacheInvalidationBus invalidationBus;
+    private final NearCache<List<String>> tagsCache;
+    private final NearCache<Set<Long>> recommendedCache;
     private static final Duration RECOMMEND_TTL = Duration.ofMinutes(30);
     private static final Duration TAGS_TTL      = Duration.ofHours(6);
 
-    public CacheService(RedisTemplate<String, String> redisTemplate) {
+    //여러 appid를 한 번에 선점: ZADD NX 결과(1=새로 추가)를 순서대로 반환
+    //점수는 선점 시각(Redis 서버 시간, ms)이라 항목마다 RECOMMEND_TTL 뒤에 만료됨 (계속 쓰는 클라이언트도 집합이 무한히 커지지 않음)
+    //만료된 항목을 먼저 지운 뒤 추가하고, 키 TTL은 마지막 선점 후 정리용
+    private static final RedisScript<List<Long>> CLAIM_SCRIPT = RedisScripts.returningLongs("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[1]))
+            local added = {}
+            for i = 2, #ARGV do
+                added[i - 1] = redis.call('ZADD', KEYS[1], 'NX', now, ARGV[i])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return added
+            """);
+
+    //아직 만료되지 않은 선점 목록. 만료 기준을 CLAIM_SCRIPT와 같은 Redis 시계로 맞춤
+    //(인스턴스 시계로 자르면 시계 차이만큼 만료된 선점이 남거나 살아 있는 선점이 빠짐)
+    private static final RedisScript<List<String>> LIVE_CLAIMS_SCRIPT = RedisScripts.returningStrings("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            return redis.call('ZRANGEBYSCORE', KEYS[1], now - tonumber(ARGV[1]), '+inf')
+            """);
+
+    public CacheService(RedisTemplate<String, String> redisTemplate,
+                        RedisBinaryStore binaryStore,
+                        GameTagIndex gameTagIndex,
+                        CacheInvalidationBus invalidationBus,
+                        NearCacheProperties properties,
+                        MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
+        this.binaryStore = binaryStore;
+        this.gameTagIndex = gameTagIndex;
+        this.invalidationBus = invalidationBus;
+        this.tagsCache = new NearCache<>("tags", properties.namespace("tags"), meterRegistry);
+        this.recommendedCache = new NearCache<>("recommended", properties.namespace("recommended"), meterRegistry);
+        invalidationBus.register(tagsCache);
+        invalidationBus.register(recommendedCache);
+    }
+
+    //이 클라이언트에게 최근 추천한 게임 목록 (샘플링 전에 한 번에 가져옴, 호출 측이 수정 가능한 복사본)
+    public Set<Long> getRecommended(String clientId) {
+        Set<Long> cached = recommendedCache.get(clientId, this::loadRecommended);
+        return cached == null ? new HashSet<>() : new HashSet<>(cached);
     }
 
-    //게임 중복 추천 방지
-    public boolean isAlreadyRecommended(long appid) {
-        return "true".equals(redisTemplate.opsForValue().get(keyForRecommended(appid)));
+    //게임 추천 선점. 이미 같은 클라이언트에게 추천된 게임이면 false
+    public boolean claimRecommended(String clientId, long appid) {
+        return claimRecommended(clientId, new long[]{appid})[0];
+    }
+
+    //여러 게임을 한 번의 왕복으로 선점, 결과는 입력 순서대로
+    //선점 여부는 항상 Redis가 판단하므로 L1이 오래된 값이어도 중복 추천은 생기지 않음
+    public boolean[] claimRecommended(String clientId, long[] appids) {
+        boolean[] claimed = new boolean[appids.length];
+        if (appids.length == 0) {
+            return claimed;
+        }
+        String[] args = new String[appids.length + 1];
+        args[0] = String.valueOf(RECOMMEND_TTL.toMillis());
+        for (int i = 0; i < appids.length; i++) {
+            args[i + 1] = String.valueOf(appids[i]);
+        }
+        List<Long> added = redisTemplate.execute(CLAIM_SCRIPT, List.of(keyForRecommended(clientId)), (Object[]) args);
+        boolean anyClaimed = false;
+        for (int i = 0; i < appids.length && added != null && i < added.size(); i++) {
+            claimed[i] = added.get(i) == 1L;
+            anyClaimed |= claimed[i];
+        }
+
+        //성공이든 실패든 Redis 집합에는 appid가 있으므로 L1도 맞춰 둠
+        recommendedCache.update(clientId, set -> {
+            Set<Long> updated = new HashSet<>(set);
+            for (long appid : appids) {
+                updated.add(appid);
+            }
+            return Set.copyOf(updated);
+        });
+        if (anyClaimed && recommendedCache.mode() == NearCacheProperties.Mode.WRITE_THROUGH) {
+            invalidationBus.publish(recommendedCache.namespace(), clientId);
+        }
+        return claimed;
     }
 
-    //게임 추천 설정
-    public void setRecommended(long appid) {
-        redisTemplate.opsForValue().set(keyForRecommended(appid), "true", RECOMMEND_TTL);
+    private Set<Long> loadRecommended(String clientId) {
+        //아직 만료되지 않은 선점만 (정리는 다음 선점 때 CLAIM_SCRIPT가 함)
+        List<String> members = redisTemplate.execute(LIVE_CLAIMS_SCRIPT, List.of(keyForRecommended(clientId)),
+                String.valueOf(RECOMMEND_TTL.toMillis()));
+        Set<Long> appids = new HashSet<>();
+        if (members != null) {
+            for (String member : members) {
+                appids.add(Long.parseLong(member));
+            }
+        }
+        //빈 목록도 L1에 둠 (처음 온 클라이언트도 다음 요청부터 Redis 조회 없음)
+        return Set.copyOf(appids);
     }
 
-    private String keyForRecommended(long appid) {
-        return "recommended:" + appid;
+    private String keyForRecommended(String clientId) {
+        //SET에서 선점 시각을 점수로 둔 ZSET으로 바뀌어 키를 나눔 (기존 키는 TTL로 사라짐)
+        return "recommended:v2:" + clientId;
     }
 
     public List<String> getCachedTags(String inputHash) {
-        String key = "gemini:tag:" + inputHash;
-        return redisTemplate.opsForList().range(key, 0, -1);
+        return getCachedTags(List.of(inputHash)).get(inputHash);
     }
 
+    //여러 입력의 태그 결과를 MGET 한 번으로 조회 (없는 입력은 결과에서 빠짐)
+    public Map<String, List<String>> getCachedTags(List<String> inputHashes) {
+        return tagsCache.getAll(inputHashes, missing -> {
+            List<String> keys = new ArrayList<>(missing.size());
+            for (String hash : missing) {
+                keys.add(keyForTags(hash));
+            }
+            Map<String, byte[]> values = binaryStore.getAll(keys);
+            GameTagSnapshot snapshot = gameTagIndex.snapshot();
+            Map<String, List<String>> decoded = new HashMap<>();
+            for (String hash : missing) {
+                byte[] value = values.get(keyForTags(hash));
+                List<String> tags = value == null ? null : TagListCodec.decode(value, snapshot::tagNameById);
+                if (tags != null && !tags.isEmpty()) {
+                    decoded.put(hash, List.copyOf(tags));
+                }
+            }
+            return decoded;
+        });
+    }
+
+    //값과 TTL을 SET ... PX 한 명령으로 저장
     public void cacheTags(String inputHash, List<String> tags) {
-        String key = "gemini:tag:" + inputHash;
-        redisTemplate.opsForList().rightPushAll(key, tags);
-        redisTemplate.expire(key, TAGS_TTL);
+        binaryStore.set(keyForTags(inputHash), TagListCodec.encode(tags, gameTagIndex.snapshot()::tagIdOf), TAGS_TTL);
+        tagsCache.put(inputHash, List.copyOf(tags));
+    }
+
+    //여러 입력의 태그 결과를 파이프라인 한 번으로 저장
+    public void cacheTags(Map<String, List<String>> tagsByInputHash) {
+        GameTagSnapshot snapshot = gameTagIndex.snapshot();
+        Map<String, byte[]> values = new HashMap<>();
+        tagsByInputHash.forEach((hash, tags) -> {
+            values.put(keyForTags(hash), TagListCodec.encode(tags, snapshot::tagIdOf));
+            tagsCache.put(hash, List.copyOf(tags));
+        });
+        binaryStore.setAll(values, TAGS_TTL);
+    }
+
+    //리스트 형식이던 예전 키(gemini:tag:)와 겹치지 않도록 새 접두사 사용
+    private String keyForTags(String inputHash) {
+        return "gemini:tags:v2:" + inputHash;
     }
-}
\ No newline at end of file
+}
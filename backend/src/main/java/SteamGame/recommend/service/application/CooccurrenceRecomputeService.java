@@ -0,0 +1,217 @@
+package SteamGame.recommend.service.application;
+
+import SteamGame.recommend.repository.CatalogJdbcRepository;
+import SteamGame.recommend.repository.CooccurrenceJdbcRepository;
+import SteamGame.recommend.service.index.TagPairCounter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+//game_tags로부터 tag_cooccurrence를 다시 계산
+//전체: 섀도 테이블에 적재 후 교체
+//증분: 마지막 실행 이후 game_tags 변경 기록(game_tag_changes, 트리거가 남김)에 나온 게임만 다시 보고
+//      게임마다 변경 전 태그 쌍은 빼고 변경 후 태그 쌍은 더함 (기존 게임에 태그가 추가/제거되어도 반영)
+//모든 노드에서 스케줄되지만 MySQL 잠금으로 한 번에 한 노드만 실행하고, 증분 기준(watermark)은 DB에 공유
+@Slf4j
+@Service
+public class CooccurrenceRecomputeService {
+    private static final int BATCH_SIZE = 1000;
+
+    private final CatalogJdbcRepository catalogRepository;
+    private final CooccurrenceJdbcRepository cooccurrenceRepository;
+    private final CooccurrenceService cooccurrenceService;
+    private final ForkJoinPool pool;
+    private final ReentrantLock running = new ReentrantLock();
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotRead;
+
+    public CooccurrenceRecomputeService(CatalogJdbcRepository catalogRepository,
+                                        CooccurrenceJdbcRepository cooccurrenceRepository,
+                                        CooccurrenceService cooccurrenceService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.cooccurrence.recompute.parallelism:0}") int parallelism) {
+        this.catalogRepository = catalogRepository;
+        this.cooccurrenceRepository = cooccurrenceRepository;
+        this.cooccurrenceService = cooccurrenceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //집계용 읽기는 한 스냅샷에서 (MySQL REPEATABLE READ의 일관된 읽기)
+        this.snapshotRead = new TransactionTemplate(transactionManager);
+        this.snapshotRead.setReadOnly(true);
+        this.snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Scheduled(cron = "${app.cooccurrence.recompute.full-cron:0 0 4 * * *}")
+    public void recomputeAll() {
+        recompute(true);
+    }
+
+    @Scheduled(initialDelayString = "${app.cooccurrence.recompute.incremental-interval-ms:600000}",
+            fixedDelayString = "${app.cooccurrence.recompute.incremental-interval-ms:600000}")
+    public void recomputeIncremental() {
+        recompute(false);
+    }
+
+    private void recompute(boolean full) {
+        if (!running.tryLock()) {
+            log.info("태그 동시 출현 재계산이 이미 진행 중입니다.");
+            return;
+        }
+        try {
+            if (!cooccurrenceRepository.runExclusively(() -> recomputeLocked(full))) {
+                log.info("다른 노드가 태그 동시 출현 재계산을 진행 중입니다.");
+            }
+        } catch (Exception e) {
+            log.error("태그 동시 출현 재계산 실패", e);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private void recomputeLocked(boolean full) {
+        long start = System.currentTimeMillis();
+        long watermark = cooccurrenceRepository.findWatermark();
+        boolean rebuild = full || watermark < 0;
+
+        Counted counted = snapshotRead.execute(status -> rebuild ? countAll() : countChanges(watermark));
+        if (counted == null) {
+            return;
+        }
+
+        long upper = counted.lastChangeId();
+        if (rebuild) {
+            //교체 직후 중단되면 다음 실행이 전체 재계산을 하도록 먼저 기준을 지움 (RENAME은 DDL이라 트랜잭션으로 묶을 수 없음)
+            cooccurrenceRepository.prepareShadow();
+            cooccurrenceRepository.upsertShadow(counted.rows(), BATCH_SIZE);
+            cooccurrenceRepository.resetWatermark();
+            cooccurrenceRepository.swapShadow();
+            transactionTemplate.executeWithoutResult(status -> {
+                cooccurrenceRepository.updateWatermark(-1, upper);
+                cooccurrenceRepository.deleteChangesBefore(upper);
+            });
+        } else {
+            //증감 반영과 기준 이동을 한 트랜잭션으로 (같은 변경이 두 번 반영되지 않음)
+            transactionTemplate.executeWithoutResult(status -> {
+                cooccurrenceRepository.applyLiveDeltas(counted.rows(), BATCH_SIZE);
+                if (!cooccurrenceRepository.updateWatermark(watermark, upper)) {
+                    throw new IllegalStateException("동시 출현 증분 기준이 다른 노드에서 변경되었습니다.");
+                }
+                cooccurrenceRepository.deleteChangesBefore(upper);
+            });
+        }
+        cooccurrenceService.refresh();
+
+        log.info("태그 동시 출현 {} 완료: 게임 {}개, 쌍 {}개, {}ms", rebuild ? "전체 재계산" : "증분 반영",
+                counted.games(), counted.rows().size(), System.currentTimeMillis() - start);
+    }
+
+    //스냅샷 트랜잭션 안에서 호출: 변경 기록의 마지막 id와 game_tags가 같은 시점이어야 재계산과 이후 증분이 겹치지 않음
+    private Counted countAll() {
+        long lastChangeId = cooccurrenceRepository.findLastChangeId();
+        TagOrdinals tags = loadTags();
+        TagPairCounter counter = new TagPairCounter(tags.names().size());
+        cooccurrenceRepository.streamGameTagsByGame(rs -> {
+            Integer tag = tags.ordinals().get(rs.getLong(2));
+            if (tag != null) {
+                counter.add(rs.getLong(1), tag);
+            }
+        });
+        return new Counted(lastChangeId, counter.gameCount(), toRows(counter.count(pool), tags.names()));
+    }
+
+    //바뀐 게임마다 현재 태그(변경 후)에서 변경 기록을 거꾸로 되돌려 변경 전 태그를 구하고 쌍 수의 차이를 셈
+    private Counted countChanges(long watermark) {
+        long lastChangeId = cooccurrenceRepository.findLastChangeId();
+        if (lastChangeId <= watermark) {
+            return null;
+        }
+        TagOrdinals tags = loadTags();
+
+        Map<Long, List<long[]>> changes = new LinkedHashMap<>();
+        cooccurrenceRepository.streamChanges(watermark, lastChangeId, rs -> changes
+                .computeIfAbsent(rs.getLong(1), k -> new ArrayList<>())
+                .add(new long[]{rs.getLong(2), rs.getInt(3)}));
+        Map<Long, Set<Long>> current = new HashMap<>();
+        cooccurrenceRepository.streamTagsOfChangedGames(watermark, lastChangeId, rs -> current
+                .computeIfAbsent(rs.getLong(1), k -> new HashSet<>())
+                .add(rs.getLong(2)));
+
+        int n = tags.names().size();
+        int[] deltas = new int[n * (n - 1) / 2];
+        for (Map.Entry<Long, List<long[]>> game : changes.entrySet()) {
+            Set<Long> after = current.getOrDefault(game.getKey(), Set.of());
+            Set<Long> before = new HashSet<>(after);
+            List<long[]> log = game.getValue();
+            for (int i = log.size() - 1; i >= 0; i--) {
+                if (log.get(i)[1] > 0) {
+                    before.remove(log.get(i)[0]);
+                } else {
+                    before.add(log.get(i)[0]);
+                }
+            }
+            TagPairCounter.addPairs(deltas, n, tags.ordinalsOf(before), -1);
+            TagPairCounter.addPairs(deltas, n, tags.ordinalsOf(after), 1);
+        }
+        return new Counted(lastChangeId, changes.size(), toRows(deltas, tags.names()));
+    }
+
+    private TagOrdinals loadTags() {
+        List<String> names = new ArrayList<>();
+        Map<Long, Integer> ordinals = new HashMap<>();
+        catalogRepository.streamTags(rs -> {
+            ordinals.put(rs.getLong(1), names.size());
+            names.add(rs.getString(2));
+        });
+        return new TagOrdinals(names, ordinals);
+    }
+
+    private record TagOrdinals(List<String> names, Map<Long, Integer> ordinals) {
+        //사전에 없는 태그 id는 건너뜀
+        int[] ordinalsOf(Set<Long> tagIds) {
+            return tagIds.stream().map(ordinals::get).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    //lastChangeId: 이 결과에 반영된 마지막 변경 기록 id (다음 증분의 기준)
+    private record Counted(long lastChangeId, int games, List<Object[]> rows) {
+    }
+
+    //상삼각 배열 순서 그대로 (i, j) 순회, 저장 규칙에 맞게 단어순 정렬
+    private List<Object[]> toRows(int[] counts, List<String> names) {
+        List<Object[]> rows = new ArrayList<>();
+        int n = names.size(), k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++, k++) {
+                if (counts[k] == 0) {
+                    continue;
+                }
+                String t1 = names.get(i), t2 = names.get(j);
+                rows.add(t1.compareTo(t2) < 0
+                        ? new Object[]{t1, t2, counts[k]}
+                        : new Object[]{t2, t1, counts[k]});
+            }
+        }
+        return rows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -2,8 +2,11 @@ package SteamGame.recommend.service.application;
 
 import SteamGame.recommend.entity.TagCooccurrence;
 import SteamGame.recommend.entity.TagPairKey;
+import SteamGame.recommend.repository.CatalogJdbcRepository;
 import SteamGame.recommend.repository.CooccurrenceRepository;
+import SteamGame.recommend.service.index.TagCooccurrenceMatrix;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,22 +16,27 @@ import java.util.Optional;
 @Service
 public class CooccurrenceService {
     private final CooccurrenceRepository repo;
+    private final CatalogJdbcRepository catalogRepository;
 
-    public CooccurrenceService(CooccurrenceRepository repo) {
+    private volatile TagCooccurrenceMatrix matrix;
+
+    public CooccurrenceService(CooccurrenceRepository repo, CatalogJdbcRepository catalogRepository) {
         this.repo = repo;
+        this.catalogRepository = catalogRepository;
     }
 
     //전체 엔티티 반환
     public Optional<TagCooccurrence> findOptimalPairEntity(List<String> tags, int threshold) {
+        TagCooccurrenceMatrix current = matrix;
+        if (current != null) {
+            return current.bestPair(tags, threshold)
+                    .map(key -> new TagCooccurrence(key, current.count(key.getFirstTag(), key.getSecondTag())));
+        }
+
+        //행렬 적재 전에는 DB에서 쌍마다 조회
         for (int i = 0; i < tags.size(); i++) {
             for (int j = i + 1; j < tags.size(); j++) {
-                String t1 = tags.get(i), t2 = tags.get(j);
-
-                //단어순 정렬
-                TagPairKey key = new TagPairKey(
-                        t1.compareTo(t2) < 0 ? t1 : t2,
-                        t1.compareTo(t2) < 0 ? t2 : t1
-                );
+                TagPairKey key = TagCooccurrenceMatrix.pairKey(tags.get(i), tags.get(j));
 
                 Optional<TagCooccurrence> opt = repo.findById(key);
                 if (opt.isPresent() && opt.get().getCount() >= threshold) {
@@ -43,4 +51,25 @@ public class CooccurrenceService {
         return findOptimalPairEntity(tags, threshold)
                 .map(TagCooccurrence::getId);
     }
+
+    //동시 출현 수 상위 k개 쌍 (첫 번째 쌍으로 게임을 못 찾았을 때 대안으로 사용)
+    public List<TagPairKey> findTopPairKeys(List<String> tags, int threshold, int k) {
+        TagCooccurrenceMatrix current = matrix;
+        if (current == null) {
+            return findOptimalPairKey(tags, threshold).map(List::of).orElse(List.of());
+        }
+        return current.topPairs(tags, threshold, k);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.cooccurrence.refresh-interval-ms:3600000}")
+    public void refresh() {
+        try {
+            TagCooccurrenceMatrix.Builder builder = TagCooccurrenceMatrix.builder();
+            catalogRepository.streamCooccurrences(rs -> builder.add(rs.getString(1), rs.getString(2), rs.getInt(3)));
+            matrix = builder.build();
+            log.info("태그 동시 출현 행렬 적재 완료: 태그 {}개", matrix.tagCount());
+        } catch (Exception e) {
+            log.error("태그 동시 출현 행렬 적재 실패", e);
+        }
+    }
 }
@@ -4,44 +4,262 @@ import SteamGame.recommend.dto.SteamDTO;
 import SteamGame.recommend.entity.Game;
 import SteamGame.recommend.mapper.GameMapper;
 import SteamGame.recommend.repository.GameRepository;
+import SteamGame.recommend.service.index.GameTagIndex;
+import SteamGame.recommend.service.index.GameTagSnapshot;
+import SteamGame.recommend.service.index.GameVectorIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class GameFinderService {
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+    //프로필 벡터와 가까운 후보 중 무작위로 골라 매번 같은 게임이 나오지 않게 함
+    private static final int PROFILE_CANDIDATES = 10;
+
     private final GameRepository gameRepository;
     private final CacheService cacheService;
+    private final GameTagIndex gameTagIndex;
+    private final GameVectorIndex gameVectorIndex;
+    private final RandomGameSampler randomGameSampler;
+
+    //조건에 맞는 게임 뽑기 시간 (인메모리 인덱스 / DB), 호출당 중복 선점 실패로 다시 뽑은 횟수
+    private final Timer indexSingleQuery;
+    private final Timer indexBatchQuery;
+    private final Timer dbSingleQuery;
+    private final Timer dbBatchQuery;
+    private final DistributionSummary singleRetries;
+    private final DistributionSummary batchRetries;
 
-    public GameFinderService(GameRepository gameRepository, CacheService cacheService){
+    public GameFinderService(GameRepository gameRepository, CacheService cacheService, GameTagIndex gameTagIndex,
+                             GameVectorIndex gameVectorIndex, RandomGameSampler randomGameSampler,
+                             MeterRegistry meterRegistry){
         this.gameRepository = gameRepository;
         this.cacheService = cacheService;
+        this.gameTagIndex = gameTagIndex;
+        this.gameVectorIndex = gameVectorIndex;
+        this.randomGameSampler = randomGameSampler;
+        this.indexSingleQuery = queryTimer(meterRegistry, "index", "single");
+        this.indexBatchQuery = queryTimer(meterRegistry, "index", "batch");
+        this.dbSingleQuery = queryTimer(meterRegistry, "db", "single");
+        this.dbBatchQuery = queryTimer(meterRegistry, "db", "batch");
+        this.singleRetries = retrySummary(meterRegistry, "single");
+        this.batchRetries = retrySummary(meterRegistry, "batch");
     }
 
     @Transactional(readOnly = true)
-    public SteamDTO.SteamApp findNonDuplicate(String[] tags, int review, boolean korean_check, Boolean free_check) {
+    public SteamDTO.SteamApp findNonDuplicate(String clientId, String[] tags, int review, boolean korean_check, Boolean free_check) {
         List<String> tagList = Arrays.asList(tags);
 
-        for (int i = 0; i < 5; i++) {
-            Optional<Game> optionalGame = gameRepository.findRandomGameByTags(tagList,tagList.size(),review,korean_check,free_check);
+        //이 클라이언트에게 이미 추천한 게임은 뽑기 단계에서 바로 제외
+        Set<Long> excluded = cacheService.getRecommended(clientId);
 
-            if (optionalGame.isEmpty()) {
-                throw new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "조건에 맞는 게임을 찾을 수 없습니다.");
-            }
+        //동시 요청과 같은 게임을 두고 경합한 경우에만 다시 뽑음
+        int retries = 0;
+        try {
+            for (int i = 0; i < MAX_CLAIM_ATTEMPTS; i++) {
+                Optional<Game> optionalGame = findRandomGame(tagList, review, korean_check, free_check, excluded);
+
+                if (optionalGame.isEmpty()) {
+                    if (excluded.isEmpty()) {
+                        throw new ResponseStatusException(
+                                HttpStatus.NOT_FOUND, "조건에 맞는 게임을 찾을 수 없습니다.");
+                    }
+                    break;
+                }
 
-            Game candidate = optionalGame.get();
+                Game candidate = optionalGame.get();
 
-            if (!cacheService.isAlreadyRecommended(candidate.getAppid())) {
-                cacheService.setRecommended(candidate.getAppid());
-                return GameMapper.convertToDTO(candidate);
+                if (cacheService.claimRecommended(clientId, candidate.getAppid())) {
+                    return GameMapper.convertToDTO(candidate);
+                }
+                excluded.add(candidate.getAppid());
+                retries++;
             }
+        } finally {
+            singleRetries.record(retries);
         }
         throw new ResponseStatusException(HttpStatus.NOT_FOUND,"조건에 맞는 새로운 게임을 찾을 수 없습니다. (중복으로 인해 추천 실패)");
     }
+
+    //서로 다른 게임 최대 count개. 한 번에 뽑고 한 번에 선점하며, 경합으로 빠진 만큼만 다시 뽑음
+    @Transactional(readOnly = true)
+    public List<SteamDTO.SteamApp> findNonDuplicateBatch(String clientId, String[] tags, int review, boolean korean_check, Boolean free_check, int count) {
+        List<String> tagList = Arrays.asList(tags);
+        Set<Long> excluded = cacheService.getRecommended(clientId);
+        boolean hadExclusions = !excluded.isEmpty();
+        List<SteamDTO.SteamApp> result = new ArrayList<>(count);
+
+        int retries = 0;
+        try {
+            for (int i = 0; i < MAX_CLAIM_ATTEMPTS && result.size() < count; i++) {
+                List<Game> candidates = findRandomGames(tagList, review, korean_check, free_check, excluded, count - result.size());
+                if (candidates.isEmpty()) {
+                    break;
+                }
+
+                long[] appids = candidates.stream().mapToLong(Game::getAppid).toArray();
+                boolean[] claimed = cacheService.claimRecommended(clientId, appids);
+                for (int c = 0; c < appids.length; c++) {
+                    if (claimed[c]) {
+                        result.add(GameMapper.convertToDTO(candidates.get(c)));
+                    } else {
+                        retries++;
+                    }
+                    excluded.add(appids[c]);
+                }
+            }
+        } finally {
+            batchRetries.record(retries);
+        }
+
+        if (result.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, hadExclusions
+                    ? "조건에 맞는 새로운 게임을 찾을 수 없습니다. (중복으로 인해 추천 실패)"
+                    : "조건에 맞는 게임을 찾을 수 없습니다.");
+        }
+        return result;
+    }
+
+    //appid와 태그가 비슷한 게임 (IDF 가중 겹침 순), 조건 필터와 중복 추천 제외를 그대로 적용
+    @Transactional(readOnly = true)
+    public List<SteamDTO.SteamApp> findSimilar(String clientId, long appid, int review, boolean korean_check, Boolean free_check, int count) {
+        if (!gameTagIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "게임 인덱스를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+        GameTagSnapshot snapshot = gameTagIndex.snapshot();
+        int seed = snapshot.ordinalOf(appid);
+        if (seed < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "기준 게임을 찾을 수 없습니다.");
+        }
+
+        RoaringBitmap allowed = snapshot.match(List.of(), review, korean_check, free_check);
+        allowed.andNot(snapshot.ordinalsOf(cacheService.getRecommended(clientId)));
+        List<SteamDTO.SteamApp> result = new ArrayList<>(count);
+
+        //동시 요청에 선점을 뺏긴 만큼 후보에서 빼고 다음으로 비슷한 게임을 다시 뽑음
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS && result.size() < count; attempt++) {
+            int[] ordinals = snapshot.similarTo(seed, allowed, count - result.size());
+            if (ordinals.length == 0) {
+                break;
+            }
+            for (int ordinal : ordinals) {
+                allowed.remove(ordinal);
+            }
+
+            List<Game> games = loadInOrder(Arrays.stream(ordinals).mapToLong(snapshot::gameIdAt).toArray());
+            boolean[] claimed = cacheService.claimRecommended(clientId, games.stream().mapToLong(Game::getAppid).toArray());
+            for (int i = 0; i < games.size(); i++) {
+                if (claimed[i]) {
+                    result.add(GameMapper.convertToDTO(games.get(i)));
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "비슷한 게임을 찾을 수 없습니다.");
+        }
+        return result;
+    }
+
+    //프로필 벡터와 가까운 게임 하나 (보유 게임, 추천 이력, 조건 필터 제외). 벡터 인덱스 준비 전이면 empty
+    @Transactional(readOnly = true)
+    public Optional<SteamDTO.SteamApp> findByProfile(String clientId, float[] profile, long[] ownedAppids,
+                                                     int review, boolean korean_check, Boolean free_check) {
+        if (!gameVectorIndex.isReady() || !gameTagIndex.isReady()) {
+            return Optional.empty();
+        }
+        GameTagSnapshot snapshot = gameTagIndex.snapshot();
+        RoaringBitmap allowed = snapshot.match(List.of(), review, korean_check, free_check);
+        Set<Long> excluded = cacheService.getRecommended(clientId);
+        long[] owned = ownedAppids.clone();
+        Arrays.sort(owned);
+
+        long[] nearest = gameVectorIndex.nearest(profile, PROFILE_CANDIDATES, appid -> {
+            int ordinal = snapshot.ordinalOf(appid);
+            return ordinal >= 0 && allowed.contains(ordinal)
+                    && Arrays.binarySearch(owned, appid) < 0 && !excluded.contains(appid);
+        });
+
+        //후보 순서를 섞어 하나씩 선점 시도
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = nearest.length - 1; i > 0; i--) {
+            int swap = random.nextInt(i + 1);
+            long tmp = nearest[i];
+            nearest[i] = nearest[swap];
+            nearest[swap] = tmp;
+        }
+        for (long appid : nearest) {
+            if (cacheService.claimRecommended(clientId, appid)) {
+                Optional<Game> game = gameRepository.findById(snapshot.gameIdAt(snapshot.ordinalOf(appid)));
+                if (game.isPresent()) {
+                    return Optional.of(GameMapper.convertToDTO(game.get()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<Game> findRandomGames(List<String> tagList, int review, boolean korean_check, Boolean free_check, Set<Long> excluded, int count) {
+        if (!gameTagIndex.isReady()) {
+            return dbBatchQuery.record(() -> randomGameSampler.sample(tagList, review, korean_check, free_check, excluded, count));
+        }
+        long[] gameIds = indexBatchQuery.record(() -> gameTagIndex.pickRandom(tagList, review, korean_check, free_check, excluded, count));
+        if (gameIds.length == 0) {
+            return List.of();
+        }
+        return loadInOrder(gameIds);
+    }
+
+    private static Timer queryTimer(MeterRegistry meterRegistry, String source, String kind) {
+        return Timer.builder("recommend.game.query")
+                .tag("source", source)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary retrySummary(MeterRegistry meterRegistry, String kind) {
+        return DistributionSummary.builder("recommend.dedup.retries")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    //findAllById는 순서를 보장하지 않으므로 주어진 순서대로 다시 정렬
+    private List<Game> loadInOrder(long[] gameIds) {
+        Map<Long, Game> byId = new HashMap<>();
+        for (Game game : gameRepository.findAllById(Arrays.stream(gameIds).boxed().toList())) {
+            byId.put(game.getId(), game);
+        }
+        List<Game> games = new ArrayList<>(gameIds.length);
+        for (long id : gameIds) {
+            Game game = byId.get(id);
+            if (game != null) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+
+    //인메모리 인덱스가 적재돼 있으면 비트맵에서 뽑고 PK로 조회, 아니면 DB에서 무작위 키 seek
+    private Optional<Game> findRandomGame(List<String> tagList, int review, boolean korean_check, Boolean free_check, Set<Long> excluded) {
+        if (!gameTagIndex.isReady()) {
+            return dbSingleQuery.record(() -> randomGameSampler.sample(tagList, review, korean_check, free_check, excluded, 1).stream().findFirst());
+        }
+        OptionalLong gameId = indexSingleQuery.record(() -> gameTagIndex.pickRandom(tagList, review, korean_check, free_check, excluded));
+        return gameId.isPresent() ? gameRepository.findById(gameId.getAsLong()) : Optional.empty();
+    }
 }
@@ -0,0 +1,133 @@
+package SteamGame.recommend.service.application;
+
+import SteamGame.recommend.config.NearCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+//Redis(L2) 앞에 두는 노드 로컬(L1) 캐시 한 구역. 티어별 적중/실패를 cache.requests로 기록
+final class NearCache<V> {
+    private final String namespace;
+    private final NearCacheProperties.Mode mode;
+    private final Cache<String, V> local;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    NearCache(String namespace, NearCacheProperties.Namespace config, MeterRegistry meterRegistry) {
+        this.namespace = namespace;
+        this.mode = config.getMode();
+        this.local = mode == NearCacheProperties.Mode.NONE ? null : Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .build();
+        this.l1Hits = counter(meterRegistry, "l1", "hit");
+        this.l1Misses = counter(meterRegistry, "l1", "miss");
+        this.l2Hits = counter(meterRegistry, "l2", "hit");
+        this.l2Misses = counter(meterRegistry, "l2", "miss");
+    }
+
+    String namespace() {
+        return namespace;
+    }
+
+    NearCacheProperties.Mode mode() {
+        return mode;
+    }
+
+    //L1에 없으면 loader로 Redis 조회 (null = Redis에도 없음, 캐시하지 않음)
+    V get(String key, Function<String, V> loader) {
+        if (local != null) {
+            V cached = local.getIfPresent(key);
+            if (cached != null) {
+                l1Hits.increment();
+                return cached;
+            }
+            l1Misses.increment();
+        }
+
+        V loaded = loader.apply(key);
+        if (loaded == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        if (local != null) {
+            local.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    //여러 키 조회: L1에 없는 키만 모아 loader 한 번으로 Redis 조회
+    Map<String, V> getAll(List<String> keys, Function<List<String>, Map<String, V>> loader) {
+        Map<String, V> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : keys) {
+            V cached = local == null ? null : local.getIfPresent(key);
+            if (cached != null) {
+                l1Hits.increment();
+                result.put(key, cached);
+            } else {
+                if (local != null) {
+                    l1Misses.increment();
+                }
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<String, V> loaded = loader.apply(missing);
+        for (String key : missing) {
+            V value = loaded.get(key);
+            if (value == null) {
+                l2Misses.increment();
+                continue;
+            }
+            l2Hits.increment();
+            result.put(key, value);
+            if (local != null) {
+                local.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    void put(String key, V value) {
+        if (local != null) {
+            local.put(key, value);
+        }
+    }
+
+    //L1에 이미 있는 값만 갱신 (없으면 다음 조회 때 Redis에서 읽음)
+    void update(String key, UnaryOperator<V> updater) {
+        if (local != null) {
+            local.asMap().computeIfPresent(key, (k, v) -> updater.apply(v));
+        }
+    }
+
+    void invalidate(String key) {
+        if (local != null) {
+            local.invalidate(key);
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.requests")
+                .tag("namespace", namespace)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,82 @@
+package SteamGame.recommend.service.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+//여러 인스턴스가 공유하는 토큰 버킷 (Redis Lua로 원자적으로 리필 + 차감)
+//소진된 키는 "언제까지 소진"인지 로컬에 기억해 두고 그 전까지는 Redis 왕복 없이 거절
+@Slf4j
+@Service
+public class QuotaService {
+    //시각은 인스턴스 시계 대신 Redis TIME 사용 (서버 간 시계 차이 무시)
+    //반환: {허용 여부, 남은 토큰, 다음 토큰까지 대기 ms}
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT = RedisScripts.returningLongs("""
+            redis.replicate_commands()
+            local capacity = tonumber(ARGV[1])
+            local refill_tokens = tonumber(ARGV[2])
+            local refill_ms = tonumber(ARGV[3])
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill_tokens / refill_ms)
+            local allowed = 0
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            else
+                wait = math.ceil((1 - tokens) * refill_ms / refill_tokens)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * refill_ms / refill_tokens) + 1000)
+            return {allowed, math.floor(tokens), wait}
+            """);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    //키 -> 소진이 풀리는 시각(epoch ms), 지난 값은 조회 시 무시
+    private final Cache<String, Long> exhaustedUntil = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    public QuotaService(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public record Quota(boolean allowed, long remaining, long retryAfterMillis) {
+    }
+
+    //토큰 하나 차감 시도. Redis 장애 시에는 허용 (인스턴스별 버킷이 남아 있으므로)
+    public Quota tryConsume(String key, long capacity, long refillTokens, Duration refillPeriod) {
+        String redisKey = "quota:" + key;
+        Long until = exhaustedUntil.getIfPresent(redisKey);
+        long now = System.currentTimeMillis();
+        if (until != null && until > now) {
+            return new Quota(false, 0, until - now);
+        }
+
+        try {
+            List<Long> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(redisKey),
+                    String.valueOf(capacity), String.valueOf(refillTokens), String.valueOf(refillPeriod.toMillis()));
+            boolean allowed = result.get(0) == 1L;
+            long remaining = result.get(1);
+            long wait = result.get(2);
+            if (!allowed) {
+                exhaustedUntil.put(redisKey, now + wait);
+            }
+            return new Quota(allowed, remaining, wait);
+        } catch (Exception e) {
+            log.warn("할당량 확인 실패, 요청 허용: {}", e.getMessage());
+            return new Quota(true, -1, 0);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package SteamGame.recommend.service.application;
+
+import SteamGame.recommend.entity.Game;
+import SteamGame.recommend.entity.Tag;
+import SteamGame.recommend.repository.GameRepository;
+import SteamGame.recommend.repository.TagRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+//인메모리 인덱스를 쓰지 않는(또는 아직 적재 전인) 경우의 DB 무작위 추천
+//결과 하나마다 game_tags.rand_key 위 새 임의 위치 r부터 seek (없으면 [0, r) 구간), 한 번에 훑는 행 수는 SCAN_LIMIT로 제한
+//같은 위치에서 이어 뽑으면 여러 개를 뽑을 때 늘 이웃한 게임 묶음이 나오므로 매번 다시 seek
+@Service
+public class RandomGameSampler {
+    //rand_key는 [0, 1) 이므로 위쪽 구간의 상한으로 충분
+    private static final double KEY_UPPER_BOUND = 2.0;
+    //seek 한 번에 드문 태그 인덱스에서 읽는 최대 행 수 (조건이 까다로워도 O(log n + SCAN_LIMIT))
+    private static final int SCAN_LIMIT = 200;
+    //결과 하나당 허용하는 빈 seek 횟수 (조건에 맞는 게임이 드물어 범위 안에서 못 찾은 경우)
+    private static final int MAX_MISSES_PER_RESULT = 2;
+
+    private final GameRepository gameRepository;
+    private final TagRepository tagRepository;
+
+    //드문 태그를 고르기 위한 근사값이므로 오래된 값이어도 무방
+    private final Cache<Long, Long> tagCounts = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    public RandomGameSampler(GameRepository gameRepository, TagRepository tagRepository) {
+        this.gameRepository = gameRepository;
+        this.tagRepository = tagRepository;
+    }
+
+    //태그를 모두 가진 게임 중 최대 count개 (없는 태그가 있으면 빈 목록)
+    public List<Game> sample(List<String> tagNames, int review, boolean korean_check, Boolean free_check, Set<Long> excluded, int count) {
+        List<Long> tagIds = tagRepository.findByNameIn(tagNames).stream().map(Tag::getId).toList();
+        if (tagIds.isEmpty() || tagIds.size() < Set.copyOf(tagNames).size()) {
+            return List.of();
+        }
+
+        //게임 수가 가장 적은 태그 범위만 훑도록 함
+        long driver = tagIds.get(0);
+        long driverCount = Long.MAX_VALUE;
+        for (long tagId : tagIds) {
+            long tagCount = tagCounts.get(tagId, gameRepository::countByTagId);
+            if (tagCount < driverCount) {
+                driver = tagId;
+                driverCount = tagCount;
+            }
+        }
+
+        //이번 호출에서 뽑은 게임도 다음 seek에서 빼야 하므로 복사본에 누적
+        Set<Long> notIn = new HashSet<>(excluded);
+        //NOT IN ()은 문법 오류이므로 빈 목록 대신 존재할 수 없는 appid를 넘김
+        notIn.add(-1L);
+        List<Game> games = new ArrayList<>(count);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int misses = 0;
+        while (games.size() < count && misses < count * MAX_MISSES_PER_RESULT) {
+            double start = random.nextDouble();
+            Optional<Game> game = gameRepository.seekRandomGameByTagIds(
+                    driver, tagIds, tagIds.size(), start, KEY_UPPER_BOUND, review, korean_check, free_check, notIn, SCAN_LIMIT);
+            if (game.isEmpty()) {
+                game = gameRepository.seekRandomGameByTagIds(
+                        driver, tagIds, tagIds.size(), 0, start, review, korean_check, free_check, notIn, SCAN_LIMIT);
+            }
+            if (game.isEmpty()) {
+                //드문 태그 범위 전체를 두 seek로 이미 다 본 경우 다시 뽑아도 없음
+                if (driverCount <= SCAN_LIMIT) {
+                    break;
+                }
+                misses++;
+                continue;
+            }
+            games.add(game.get());
+            notIn.add(game.get().getAppid());
+        }
+        return games;
+    }
+}
@@ -3,22 +3,36 @@ package SteamGame.recommend.service.application;
 import SteamGame.recommend.dto.SteamDTO;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface RecommendService {
     // 태그, 리뷰, 한글화, 무료여부 등 조건으로 게임 찾기.
-    SteamDTO.SteamApp findGame(String[] tags, int review, boolean koreanCheck, Boolean freeCheck);
+    SteamDTO.SteamApp findGame(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck);
+
+    // 같은 조건으로 서로 다른 게임 여러 개 찾기
+    List<SteamDTO.SteamApp> findGames(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck, int count);
+
+    // 기준 게임과 태그가 비슷한 게임 여러 개 찾기
+    List<SteamDTO.SteamApp> findSimilarGames(String clientId, long appid, int review, boolean koreanCheck, Boolean freeCheck, int count);
+
+    // 비동기 버전: Steam/Gemini 응답을 기다리는 동안 스레드를 잡지 않고, JPA/Redis 작업은 크기 제한 풀에서 실행
+    CompletableFuture<SteamDTO.SteamApp> findGameAsync(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck);
+
+    CompletableFuture<List<SteamDTO.SteamApp>> findGamesAsync(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck, int count);
+
+    CompletableFuture<List<SteamDTO.SteamApp>> findSimilarGamesAsync(String clientId, long appid, int review, boolean koreanCheck, Boolean freeCheck, int count);
 
     // Gemini API를 활용해 게임 태그 추출 후 추천
-    SteamDTO.RecommendationResult selectInfo(String input);
+    CompletableFuture<SteamDTO.RecommendationResult> selectInfoAsync(String clientId, String input);
 
     // 스팀 사용자 프로필 기반 추천
-    SteamDTO.RecommendationResult recommendByProfile(String steamId);
+    CompletableFuture<SteamDTO.RecommendationResult> recommendByProfileAsync(String clientId, String steamId);
 
     // 최근 플레이(2주) 기반 추천
-    SteamDTO.RecommendationResult recommendByRecentPlay(String steamId);
+    CompletableFuture<SteamDTO.RecommendationResult> recommendByRecentPlayAsync(String clientId, String steamId);
 
     //사용자 프로필에서 뽑아낸 태그들을 바탕으로 게임 찾기
-    SteamDTO.SteamApp recommendWithCooccurrence(List<String> topTags);
+    SteamDTO.SteamApp recommendWithCooccurrence(String clientId, List<String> topTags);
 
     // 전체 태그 목록 반환
     List<String> getTags();
@@ -2,100 +2,263 @@ package SteamGame.recommend.service.application;
 
 import SteamGame.recommend.dto.SteamDTO;
 import SteamGame.recommend.entity.TagPairKey;
-import SteamGame.recommend.repository.TagRepository;
+import SteamGame.recommend.exception.QuotaExceededException;
 import SteamGame.recommend.service.api.GeminiApiService;
-import SteamGame.recommend.service.api.SteamApiService;
+import SteamGame.recommend.service.index.GameVectorIndex;
+import SteamGame.recommend.service.tag.LocalTagExtractor;
 import SteamGame.recommend.service.tag.TagService;
+import SteamGame.recommend.service.tag.TagSnapshotService;
 import SteamGame.recommend.utils.EncryptUtils;
+import SteamGame.recommend.utils.KoreanTextUtils;
+import SteamGame.recommend.utils.RequestTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
 public class RecommendServiceImpl implements RecommendService {
 
     private static final int CO_THRESHOLD = 5;
+    private static final int CO_PAIR_CANDIDATES = 3;
     private static final int DEFAULT_REVIEW = 1000;
     private static final List<String> FALLBACK_TAGS = List.of("싱글 플레이어","멀티플레이어");
 
-    private final SteamApiService steamApiService;
+    private final SteamCacheService steamCacheService;
     private final GeminiApiService geminiApiService;
     private final TagService tagService;
-    private final TagRepository tagRepository;
     private final CacheService cacheService;
     private final GameFinderService gameFinderService;
     private final CooccurrenceService cooccurrenceService;
+    private final SemanticTagCache semanticTagCache;
+    private final LocalTagExtractor localTagExtractor;
+    private final TagSnapshotService tagSnapshotService;
+    private final GameVectorIndex gameVectorIndex;
+    private final BlockingTaskExecutor blockingTaskExecutor;
+    //작업 풀 스레드에서는 프록시의 @Transactional을 거치지 않으므로 같은 읽기 전용 트랜잭션을 직접 엶
+    private final TransactionTemplate readOnlyTransaction;
+
+    //문장 추천의 태그 출처 (로컬 추출 / 캐시 적중 / Gemini 호출 / 할당량 소진 대체)
+    private final Counter localInputs;
+    private final Counter cachedInputs;
+    private final Counter semanticCachedInputs;
+    private final Counter geminiInputs;
+    private final Counter quotaFallbackInputs;
 
     public RecommendServiceImpl(
-            SteamApiService steamApiService,
+            SteamCacheService steamCacheService,
             GeminiApiService geminiApiService,
             TagService tagService,
-            TagRepository tagRepository,
             CacheService cacheService,
             GameFinderService gameFinderService,
-            CooccurrenceService cooccurrenceService
+            CooccurrenceService cooccurrenceService,
+            SemanticTagCache semanticTagCache,
+            LocalTagExtractor localTagExtractor,
+            TagSnapshotService tagSnapshotService,
+            GameVectorIndex gameVectorIndex,
+            BlockingTaskExecutor blockingTaskExecutor,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
     ) {
-        this.steamApiService = steamApiService;
+        this.steamCacheService = steamCacheService;
         this.geminiApiService = geminiApiService;
         this.tagService = tagService;
-        this.tagRepository = tagRepository;
         this.cacheService = cacheService;
         this.gameFinderService = gameFinderService;
         this.cooccurrenceService = cooccurrenceService;
+        this.semanticTagCache = semanticTagCache;
+        this.localTagExtractor = localTagExtractor;
+        this.tagSnapshotService = tagSnapshotService;
+        this.gameVectorIndex = gameVectorIndex;
+        this.blockingTaskExecutor = blockingTaskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.localInputs = inputCounter(meterRegistry, "local");
+        this.cachedInputs = inputCounter(meterRegistry, "cache");
+        this.semanticCachedInputs = inputCounter(meterRegistry, "semantic_cache");
+        this.geminiInputs = inputCounter(meterRegistry, "gemini");
+        this.quotaFallbackInputs = inputCounter(meterRegistry, "quota_fallback");
+    }
+
+    private static Counter inputCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("recommend.input")
+                .tag("source", source)
+                .register(meterRegistry);
     }
 
     //태그, 리뷰, 한글화, 무료여부 등 조건으로 게임 찾기.
     @Override
     @Transactional(readOnly=true)
-    public SteamDTO.SteamApp findGame(String[] tags, int review, boolean koreanCheck, Boolean freeCheck) {
-        return gameFinderService.findNonDuplicate(tags,review,koreanCheck,freeCheck);
+    public SteamDTO.SteamApp findGame(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck) {
+        return gameFinderService.findNonDuplicate(clientId,tags,review,koreanCheck,freeCheck);
+    }
+
+    //같은 조건으로 서로 다른 게임 여러 개 찾기 (캐러셀용)
+    @Override
+    @Transactional(readOnly=true)
+    public List<SteamDTO.SteamApp> findGames(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck, int count) {
+        return gameFinderService.findNonDuplicateBatch(clientId,tags,review,koreanCheck,freeCheck,count);
+    }
+
+    //기준 게임과 태그가 비슷한 게임 여러 개 찾기
+    @Override
+    @Transactional(readOnly=true)
+    public List<SteamDTO.SteamApp> findSimilarGames(String clientId, long appid, int review, boolean koreanCheck, Boolean freeCheck, int count) {
+        return gameFinderService.findSimilar(clientId,appid,review,koreanCheck,freeCheck,count);
+    }
+
+    //비동기 버전은 같은 조회를 블로킹 작업 풀에서 실행 (트랜잭션은 GameFinderService 쪽에 있음)
+    @Override
+    public CompletableFuture<SteamDTO.SteamApp> findGameAsync(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck) {
+        return CompletableFuture.supplyAsync(() -> findGame(clientId, tags, review, koreanCheck, freeCheck),
+                blockingTaskExecutor.forCurrentRequest());
+    }
+
+    @Override
+    public CompletableFuture<List<SteamDTO.SteamApp>> findGamesAsync(String clientId, String[] tags, int review, boolean koreanCheck, Boolean freeCheck, int count) {
+        return CompletableFuture.supplyAsync(() -> findGames(clientId, tags, review, koreanCheck, freeCheck, count),
+                blockingTaskExecutor.forCurrentRequest());
+    }
+
+    @Override
+    public CompletableFuture<List<SteamDTO.SteamApp>> findSimilarGamesAsync(String clientId, long appid, int review, boolean koreanCheck, Boolean freeCheck, int count) {
+        return CompletableFuture.supplyAsync(() -> findSimilarGames(clientId, appid, review, koreanCheck, freeCheck, count),
+                blockingTaskExecutor.forCurrentRequest());
     }
 
     //Gemini API를 활용해 게임 태그 추출해 게임 찾기
+    //로컬 추출/캐시로 끝나지 않을 때만 할당량을 차감하고 Gemini 호출 (응답 대기 중에는 스레드를 잡지 않음)
     @Override
-    public SteamDTO.RecommendationResult selectInfo(String input) {
+    public CompletableFuture<SteamDTO.RecommendationResult> selectInfoAsync(String clientId, String input) {
+        String normalized = normalizeInput(input);
+        LocalTagExtractor.Result local = localTagExtractor.extract(normalized);
+        Executor executor = blockingTaskExecutor.forCurrentRequest();
+
+        return CompletableFuture.supplyAsync(() -> {
+                    SteamDTO.RecommendationResult known = recommendWithoutGemini(clientId, normalized, local);
+                    if (known == null) {
+                        geminiApiService.consumeQuota();
+                    }
+                    return known;
+                }, executor)
+                .thenCompose(known -> known != null
+                        ? CompletableFuture.completedFuture(known)
+                        : geminiApiService.requestAnswer(input).toFuture()
+                                .thenApplyAsync(response -> recommendByGeminiAnswer(clientId, normalized, response), executor))
+                .exceptionallyCompose(e -> unwrap(e) instanceof QuotaExceededException
+                        ? CompletableFuture.supplyAsync(() -> recommendOnQuotaExceeded(clientId, normalized, local), executor)
+                        : CompletableFuture.failedFuture(e));
+    }
+
+    private String normalizeInput(String input) {
         if (input == null || input.length() < 3) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST, "입력 문장이 너무 짧습니다.");
         }
+        return KoreanTextUtils.normalize(input);
+    }
 
-        //캐시 검사
-        String shaInput = EncryptUtils.sha256(input);
+    //로컬 추출 또는 캐시만으로 추천, 둘 다 아니면 null
+    private SteamDTO.RecommendationResult recommendWithoutGemini(String clientId, String normalized, LocalTagExtractor.Result local) {
+        //태그 이름/별칭만으로 문장이 설명되면 Gemini 없이 바로 추천
+        //로컬 태그로 맞는 게임이 없으면 404 대신 캐시/Gemini 추출로 넘어감
+        if (local.confident()) {
+            log.debug("로컬 태그 추출: {} (신뢰도 {})", local.tags(), local.confidence());
+            try {
+                SteamDTO.SteamApp game = findGame(clientId, local.tags().toArray(new String[0]), DEFAULT_REVIEW, true, null);
+                localInputs.increment();
+                return toResult(local.tags(), game);
+            } catch (ResponseStatusException e) {
+                if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+                    throw e;
+                }
+                log.debug("로컬 태그로 찾은 게임 없음, Gemini 추출로 대체: {}", local.tags());
+            }
+        }
+
+        //캐시 검사: 정규화한 문장이 같으면 Redis, 비슷하면 유사도 캐시
+        String shaInput = EncryptUtils.sha256(normalized);
         List<String> cachingTags = cacheService.getCachedTags(shaInput);
+        Counter cacheSource = cachedInputs;
+        if (cachingTags == null || cachingTags.isEmpty()) {
+            cachingTags = semanticTagCache.find(normalized).orElse(null);
+            cacheSource = semanticCachedInputs;
+        }
         if (cachingTags != null && !cachingTags.isEmpty()) {
-            SteamDTO.SteamApp game = findGame(cachingTags.toArray(new String[0]), DEFAULT_REVIEW, true,null);
+            cacheSource.increment();
+            SteamDTO.SteamApp game = findGame(clientId, cachingTags.toArray(new String[0]), DEFAULT_REVIEW, true,null);
             return toResult(cachingTags, game);
         }
+        return null;
+    }
 
-        boolean hit = cachingTags != null && !cachingTags.isEmpty();
-        log.info("… 캐시 히트: {}", hit);
-
-        String response =geminiApiService.getGeminiAnswer(input);
+    //할당량 소진: 느슨한 유사도 캐시 -> 신뢰도 낮은 로컬 추출 -> 기본 태그 순으로 대체 (캐시에 저장하지 않음)
+    private SteamDTO.RecommendationResult recommendOnQuotaExceeded(String clientId, String normalized, LocalTagExtractor.Result local) {
+        List<String> fallback = semanticTagCache.findLoose(normalized)
+                .orElse(local.tags().isEmpty() ? FALLBACK_TAGS : local.tags());
+        log.warn("Gemini 할당량 소진, 대체 태그 사용: {}", fallback);
+        quotaFallbackInputs.increment();
+        SteamDTO.SteamApp game = findGame(clientId, fallback.toArray(new String[0]), DEFAULT_REVIEW, true, null);
+        return toResult(fallback, game);
+    }
 
-        log.info("Gemini 응답: {}", response);
+    private SteamDTO.RecommendationResult recommendByGeminiAnswer(String clientId, String normalized, String response) {
+        log.debug("Gemini 응답: {}", response);
+        geminiInputs.increment();
         String[] tags = tagService.extractTags(response);
         if (tags.length == 0) {
             log.warn("태그 추출 실패, 기본 태그로 대체");
             tags = FALLBACK_TAGS.toArray(new String[0]);
+        } else {
+            semanticTagCache.put(normalized, Arrays.asList(tags));
         }
 
         // 캐시에 저장
-        cacheService.cacheTags(shaInput,Arrays.asList(tags));
+        cacheService.cacheTags(EncryptUtils.sha256(normalized),Arrays.asList(tags));
 
         // 최종 추천
-        SteamDTO.SteamApp game = findGame(tags, DEFAULT_REVIEW, true,null);
+        SteamDTO.SteamApp game = findGame(clientId, tags, DEFAULT_REVIEW, true,null);
         return toResult(Arrays.asList(tags), game);
     }
 
     //스팀 사용자 프로필에 있는 게임들 리스트를 받아와 태그 뽑아내기
+    //Steam 보유 게임 조회와 이 클라이언트의 추천 이력(L1) 적재를 동시에 진행한 뒤 추천
     @Override
-    public SteamDTO.RecommendationResult recommendByProfile(String steamId){
-        List<String> topTags = tagService.getTopTagsByProfile(steamId,8);
+    public CompletableFuture<SteamDTO.RecommendationResult> recommendByProfileAsync(String clientId, String steamId) {
+        Executor executor = blockingTaskExecutor.forCurrentRequest();
+        CompletableFuture<Void> history = warmRecommended(clientId, executor);
+        return steamCacheService.getOwnedGamesAsync(steamId, executor)
+                .thenCombine(history, (owned, ignored) -> owned)
+                .thenApplyAsync(owned -> recommendByOwnedGames(clientId, owned), executor);
+    }
+
+    private SteamDTO.RecommendationResult recommendByOwnedGames(String clientId, SteamDTO.PlayedGames owned) {
+        //보유 게임 목록의 태그 빈도 상위 8개
+        List<String> topTags = owned.appids().length == 0
+                ? List.of()
+                : tagService.getTopTagsByAppIds(owned.appids(),8);
+
+        //보유 게임 벡터를 플레이 시간으로 가중한 프로필 벡터와 가까운 게임 (벡터 인덱스 준비 전이면 태그 방식)
+        float[] profile = gameVectorIndex.profileVector(owned.appids(), playtimeWeights(owned.playtimeMinutes()));
+        if (profile != null) {
+            Optional<SteamDTO.SteamApp> game = gameFinderService.findByProfile(
+                    clientId, profile, owned.appids(), DEFAULT_REVIEW, true, null);
+            if (game.isPresent()) {
+                //벡터로 고른 게임은 태그로 고른 것이 아니므로 보유 상위 태그 중 그 게임에 붙은 것만 근거로 보여줌
+                return toResult(tagService.sharedTags(game.get().getAppid(), topTags), game.get());
+            }
+        }
 
         if(topTags.isEmpty()){
             throw new ResponseStatusException(
@@ -121,29 +284,32 @@ public class RecommendServiceImpl implements RecommendService {
          */
         List<String> tags = tagService.shuffleTag(topTags,3,5);
 
-        SteamDTO.SteamApp game = recommendWithCooccurrence(tags);
+        SteamDTO.SteamApp game = recommendWithCooccurrence(clientId, tags);
 
-        return new SteamDTO.RecommendationResult(tags, game);
+        return toResult(tags, game);
     }
 
     //사용자 프로필에서 뽑아낸 태그들을 바탕으로 게임 찾기
     @Override
-    public SteamDTO.SteamApp recommendWithCooccurrence(List<String> topTags) {
-        Optional<TagPairKey> optKey = cooccurrenceService.findOptimalPairKey(topTags, CO_THRESHOLD);
-
-        if (optKey.isPresent()) {
-            TagPairKey key = optKey.get();
-            return findGame(
-                    new String[]{ key.getFirstTag(), key.getSecondTag() },
-                    DEFAULT_REVIEW,
-                    true,
-                    null
-            );
+    public SteamDTO.SteamApp recommendWithCooccurrence(String clientId, List<String> topTags) {
+        //동시 출현 수가 많은 쌍부터 시도 (행렬은 메모리에 있으므로 추가 DB 조회 없음)
+        List<TagPairKey> pairs = cooccurrenceService.findTopPairKeys(topTags, CO_THRESHOLD, CO_PAIR_CANDIDATES);
+
+        for (TagPairKey key : pairs) {
+            try {
+                return findGame(
+                        clientId,
+                        new String[]{ key.getFirstTag(), key.getSecondTag() },
+                        DEFAULT_REVIEW,
+                        true,
+                        null
+                );
+            } catch (ResponseStatusException ignored) { }
         }
 
         for (String tag : topTags) {
             try {
-                return findGame(new String[]{tag}, DEFAULT_REVIEW, true, null);
+                return findGame(clientId, new String[]{tag}, DEFAULT_REVIEW, true, null);
             } catch (ResponseStatusException ignored) { }
         }
 
@@ -154,35 +320,60 @@ public class RecommendServiceImpl implements RecommendService {
 
     //최근 플레이(2주) 게임 태그들을 뽑아내 게임 찾기
     @Override
-    @Transactional(readOnly = true)
-    public SteamDTO.RecommendationResult recommendByRecentPlay(String steamId) {
-        List<Long> recentAppIds = steamApiService.getRecentPlayedGameIds(steamId);
+    public CompletableFuture<SteamDTO.RecommendationResult> recommendByRecentPlayAsync(String clientId, String steamId) {
+        Executor executor = blockingTaskExecutor.forCurrentRequest();
+        CompletableFuture<Void> history = warmRecommended(clientId, executor);
+        return steamCacheService.getRecentPlayedGamesAsync(steamId, executor)
+                .thenCombine(history, (recent, ignored) -> recent)
+                .thenApplyAsync(recent -> readOnlyTransaction.execute(
+                        status -> recommendByRecentGames(clientId, recent.appids())), executor);
+    }
 
-        if (recentAppIds.isEmpty()) {
+    private SteamDTO.RecommendationResult recommendByRecentGames(String clientId, long[] recentAppIds) {
+        if (recentAppIds.length == 0) {
             throw new ResponseStatusException(
                     HttpStatus.NOT_FOUND, "최근 플레이한 게임이 없습니다.");
         }
 
-        List<String> allTags = tagRepository.findTagNamesByAppIds(recentAppIds);
-
-        List<String> topTags = tagService.getTopTags(allTags,6);
+        List<String> topTags = tagService.getTopTagsByAppIds(recentAppIds,6);
 
         List<String> tags = tagService.shuffleTag(topTags,3,4);
 
         SteamDTO.SteamApp game = findGame(
-                tags.toArray(new String[0]), DEFAULT_REVIEW, true, null);
+                clientId, tags.toArray(new String[0]), DEFAULT_REVIEW, true, null);
 
-        return new SteamDTO.RecommendationResult(tags, game);
+        return toResult(tags, game);
     }
 
     //전체 태그 반환
     @Override
     public List<String> getTags(){
-        return tagService.getFilteredTagNames();
+        return tagSnapshotService.current().names();
+    }
+
+    //추천 단계에서 읽을 추천 이력을 L1에 미리 올려 둠. 실패해도 추천 단계에서 다시 읽으므로 무시
+    private CompletableFuture<Void> warmRecommended(String clientId, Executor executor) {
+        return CompletableFuture.runAsync(() -> cacheService.getRecommended(clientId), executor)
+                .exceptionally(e -> null);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    //오래 한 게임일수록 크게, 안 해본 게임도 보유 자체로 약간 반영 (시간 단위 로그 스케일)
+    private double[] playtimeWeights(long[] playtimeMinutes) {
+        double[] weights = new double[playtimeMinutes.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 0.25 + Math.log1p(playtimeMinutes[i] / 60.0);
+        }
+        return weights;
     }
 
     // RecommendationResult(게임 추천에 사용된 태그, 추천된 게임 정보) 규격에 맞추기
+    //사용한 태그는 느린 요청 로그에도 남김
     private SteamDTO.RecommendationResult toResult(List<String> tags, SteamDTO.SteamApp game) {
+        RequestTiming.tags(tags);
         SteamDTO.RecommendationResult r = new SteamDTO.RecommendationResult();
         r.setUsedTags(tags);
         r.setRecommendedGame(game);
@@ -0,0 +1,61 @@
+package SteamGame.recommend.service.application;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//바이너리 값 전용 Redis 접근. 여러 키는 한 번의 왕복(MGET, 파이프라인)으로 처리
+@Component
+public class RedisBinaryStore {
+    private final RedisTemplate<String, byte[]> byteRedisTemplate;
+
+    public RedisBinaryStore(@Qualifier("byteRedisTemplate") RedisTemplate<String, byte[]> byteRedisTemplate) {
+        this.byteRedisTemplate = byteRedisTemplate;
+    }
+
+    //없는 키는 결과에서 빠짐
+    public Map<String, byte[]> getAll(List<String> keys) {
+        Map<String, byte[]> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        List<byte[]> values = byteRedisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return result;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(keys.get(i), values.get(i));
+            }
+        }
+        return result;
+    }
+
+    //SET key value PX ttl (값과 TTL을 한 명령으로)
+    public void set(String key, byte[] value, Duration ttl) {
+        byteRedisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    public void setAll(Map<String, byte[]> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+        Expiration expiration = Expiration.from(ttl);
+        byteRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+                connection.stringCommands().set(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue(),
+                        expiration, RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package SteamGame.recommend.service.application;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+//Lua 스크립트 생성 도우미
+final class RedisScripts {
+    private RedisScripts() {
+    }
+
+    //정수 배열을 반환하는 스크립트 (Lettuce가 각 원소를 Long으로 변환)
+    //결과 타입으로 넘길 수 있는 건 List.class뿐이라 제네릭 타입은 여기서 한 번만 맞춤
+    @SuppressWarnings("unchecked")
+    static RedisScript<List<Long>> returningLongs(String script) {
+        return (RedisScript<List<Long>>) (RedisScript<?>) new DefaultRedisScript<>(script, List.class);
+    }
+
+    //문자열 배열을 반환하는 스크립트 (값 직렬화기로 원소를 String으로 변환)
+    @SuppressWarnings("unchecked")
+    static RedisScript<List<String>> returningStrings(String script) {
+        return (RedisScript<List<String>>) (RedisScript<?>) new DefaultRedisScript<>(script, List.class);
+    }
+}
@@ -0,0 +1,196 @@
+package SteamGame.recommend.service.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+//비슷한 입력 문장에 대해 이전 Gemini 태그 결과를 재사용 (문자 바이그램 + MinHash/LSH)
+//노드별 메모리 캐시이며, 정확히 같은 입력은 CacheService(Redis)가 먼저 처리
+//항목은 크기/TTL 제한이 있는 Caffeine 캐시가 소유하고, LSH 버킷은 제거 리스너로 함께 정리
+@Service
+public class SemanticTagCache {
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int NUM_HASHES = BANDS * ROWS;
+
+    private final double threshold;
+    private final double fallbackThreshold;
+    private final long[] seeds = new long[NUM_HASHES];
+
+    //정규화된 입력 -> 항목. 만료/크기 초과/같은 입력 재등록으로 빠진 항목은 버킷에서도 제거
+    private final Cache<String, Entry> entries;
+    private final ConcurrentHashMap<Long, Set<Entry>> buckets = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public SemanticTagCache(@Value("${app.gemini.semantic-cache.threshold:0.7}") double threshold,
+                            @Value("${app.gemini.semantic-cache.fallback-threshold:0.4}") double fallbackThreshold,
+                            @Value("${app.gemini.semantic-cache.max-entries:10000}") int maxEntries,
+                            @Value("${app.gemini.semantic-cache.ttl:6h}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.fallbackThreshold = fallbackThreshold;
+        //조회는 버킷만 보므로 만료 항목이 남지 않도록 스케줄러로 제때 정리
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String input, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        unindex(entry);
+                    }
+                })
+                .build();
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seeds[i] = random.nextLong() | 1L;
+        }
+        this.hits = Counter.builder("gemini.semantic.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gemini.semantic.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    //정규화된 입력과 자카드 유사도가 threshold 이상인 가장 비슷한 이전 입력의 태그
+    public Optional<List<String>> find(String normalizedInput) {
+        return find(normalizedInput, threshold);
+    }
+
+    //Gemini를 호출할 수 없을 때 쓰는 느슨한 조회 (기본 태그보다는 나은 후보)
+    public Optional<List<String>> findLoose(String normalizedInput) {
+        return find(normalizedInput, fallbackThreshold);
+    }
+
+    private Optional<List<String>> find(String normalizedInput, double threshold) {
+        int[] shingles = shingles(normalizedInput);
+        long[] bandKeys = bandKeys(signature(shingles));
+
+        Entry best = null;
+        double bestSimilarity = threshold;
+        for (long bandKey : bandKeys) {
+            Set<Entry> bucket = buckets.get(bandKey);
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry candidate : bucket) {
+                double similarity = jaccard(shingles, candidate.shingles);
+                if (similarity >= bestSimilarity) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+
+        if (best == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(best.tags);
+    }
+
+    public void put(String normalizedInput, List<String> tags) {
+        int[] shingles = shingles(normalizedInput);
+        if (shingles.length == 0) {
+            return;
+        }
+        Entry entry = new Entry(shingles, bandKeys(signature(shingles)), List.copyOf(tags));
+
+        //버킷에 먼저 넣어야 곧바로 밀려나는 경우에도 제거 리스너가 정리할 수 있음
+        for (long bandKey : entry.bandKeys) {
+            buckets.compute(bandKey, (k, bucket) -> {
+                Set<Entry> target = bucket == null ? ConcurrentHashMap.newKeySet() : bucket;
+                target.add(entry);
+                return target;
+            });
+        }
+        entries.put(normalizedInput, entry);
+    }
+
+    private void unindex(Entry entry) {
+        for (long bandKey : entry.bandKeys) {
+            buckets.computeIfPresent(bandKey, (k, bucket) -> {
+                bucket.remove(entry);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    //공백을 뺀 문자 바이그램 (띄어쓰기 차이에 둔감하도록), 정렬/중복 제거된 해시 배열
+    static int[] shingles(String normalizedInput) {
+        String compact = normalizedInput.replace(" ", "");
+        if (compact.length() < 2) {
+            return compact.isEmpty() ? new int[0] : new int[]{compact.charAt(0)};
+        }
+        int[] shingles = new int[compact.length() - 1];
+        for (int i = 0; i < shingles.length; i++) {
+            shingles[i] = (compact.charAt(i) << 16) | compact.charAt(i + 1);
+        }
+        return Arrays.stream(shingles).sorted().distinct().toArray();
+    }
+
+    private long[] signature(int[] shingles) {
+        long[] signature = new long[NUM_HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                long h = mix(shingle * seeds[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    //밴드(ROWS개 최소 해시)마다 하나의 버킷 키
+    private long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int b = 0; b < BANDS; b++) {
+            long key = b;
+            for (int r = 0; r < ROWS; r++) {
+                key = key * 31 + signature[b * ROWS + r];
+            }
+            keys[b] = mix(key);
+        }
+        return keys;
+    }
+
+    private static double jaccard(int[] a, int[] b) {
+        int i = 0, j = 0, intersection = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) intersection / (a.length + b.length - intersection);
+    }
+
+    //splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) & Long.MAX_VALUE;
+    }
+
+    private record Entry(int[] shingles, long[] bandKeys, List<String> tags) {
+    }
+}
@@ -0,0 +1,103 @@
+package SteamGame.recommend.service.application;
+
+import SteamGame.recommend.dto.SteamDTO;
+import SteamGame.recommend.service.api.SteamApiService;
+import SteamGame.recommend.utils.LongArrayCodec;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+//Steam Web API 결과 캐시. 같은 steamId 동시 요청은 업스트림 호출 하나를 공유(single-flight)
+@Service
+public class SteamCacheService {
+    private final SteamApiService steamApiService;
+    private final RedisTemplate<String, byte[]> byteRedisTemplate;
+    private final Duration ownedTtl;
+    private final Duration recentTtl;
+
+    private final ConcurrentHashMap<String, CompletableFuture<SteamDTO.PlayedGames>> inFlight = new ConcurrentHashMap<>();
+
+    public SteamCacheService(SteamApiService steamApiService,
+                             @Qualifier("byteRedisTemplate") RedisTemplate<String, byte[]> byteRedisTemplate,
+                             @Value("${app.steam.cache.owned-ttl:6h}") Duration ownedTtl,
+                             @Value("${app.steam.cache.recent-ttl:10m}") Duration recentTtl) {
+        this.steamApiService = steamApiService;
+        this.byteRedisTemplate = byteRedisTemplate;
+        this.ownedTtl = ownedTtl;
+        this.recentTtl = recentTtl;
+    }
+
+    //Redis 조회/저장만 executor(블로킹 작업 풀)에서 하고 Steam 응답 대기는 스레드를 잡지 않음
+    //플레이 시간까지 저장 (예전 appid 전용 값, 잘못된 플레이 시간 필드로 저장된 v2 값과 겹치지 않도록 v3 키)
+    public CompletableFuture<SteamDTO.PlayedGames> getOwnedGamesAsync(String steamId, Executor executor) {
+        return loadAsync("steam:owned:v3:" + steamId, ownedTtl, () -> steamApiService.fetchOwnedGames(steamId), executor);
+    }
+
+    public CompletableFuture<SteamDTO.PlayedGames> getRecentPlayedGamesAsync(String steamId, Executor executor) {
+        return loadAsync("steam:recent:v2:" + steamId, recentTtl, () -> steamApiService.fetchRecentPlayedGames(steamId), executor);
+    }
+
+    //먼저 들어온 요청만 Steam을 호출하고 나머지는 그 결과를 기다림
+    private CompletableFuture<SteamDTO.PlayedGames> loadAsync(String key, Duration ttl,
+                                                              Supplier<Mono<SteamDTO.PlayedGames>> upstream,
+                                                              Executor executor) {
+        return CompletableFuture.supplyAsync(() -> readCached(key), executor)
+                .thenCompose(cached -> {
+                    if (cached != null) {
+                        return CompletableFuture.completedFuture(cached);
+                    }
+                    CompletableFuture<SteamDTO.PlayedGames> mine = new CompletableFuture<>();
+                    CompletableFuture<SteamDTO.PlayedGames> existing = inFlight.putIfAbsent(key, mine);
+                    if (existing != null) {
+                        return existing;
+                    }
+                    //upstream이 구독 전에 바로 예외를 던져도 대기 중인 요청이 멈추지 않도록 완료 후 제거
+                    CompletableFuture<SteamDTO.PlayedGames> fetched;
+                    try {
+                        fetched = upstream.get().toFuture();
+                    } catch (RuntimeException e) {
+                        mine.completeExceptionally(e);
+                        inFlight.remove(key, mine);
+                        return mine;
+                    }
+                    fetched
+                            .thenApplyAsync(games -> store(key, ttl, games), executor)
+                            .whenComplete((games, e) -> {
+                                if (e == null) {
+                                    mine.complete(games);
+                                } else {
+                                    mine.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                                            ? e.getCause() : e);
+                                }
+                                inFlight.remove(key, mine);
+                            });
+                    return mine;
+                });
+    }
+
+    private SteamDTO.PlayedGames readCached(String key) {
+        byte[] cached = byteRedisTemplate.opsForValue().get(key);
+        if (cached == null) {
+            return null;
+        }
+        long[][] pairs = LongArrayCodec.decodePairs(cached);
+        return new SteamDTO.PlayedGames(pairs[0], pairs[1]);
+    }
+
+    //캐시에서 읽을 때와 같은 모양(appid 오름차순)으로 반환
+    private SteamDTO.PlayedGames store(String key, Duration ttl, SteamDTO.PlayedGames games) {
+        byte[] encoded = LongArrayCodec.encodePairs(games.appids(), games.playtimeMinutes());
+        long[][] pairs = LongArrayCodec.decodePairs(encoded);
+        byteRedisTemplate.opsForValue().set(key, encoded, ttl);
+        return new SteamDTO.PlayedGames(pairs[0], pairs[1]);
+    }
+}
@@ -0,0 +1,120 @@
+package SteamGame.recommend.service.index;
+
+import SteamGame.recommend.repository.CatalogJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+//태그별 압축 비트맵 인덱스. 기동 시 적재하고 주기적으로 스냅샷을 통째로 교체
+@Slf4j
+@Component
+public class GameTagIndex {
+    private final CatalogJdbcRepository catalogRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+
+    private volatile GameTagSnapshot snapshot = GameTagSnapshot.EMPTY;
+    private volatile boolean ready = false;
+
+    public GameTagIndex(CatalogJdbcRepository catalogRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${app.index.enabled:true}") boolean enabled) {
+        this.catalogRepository = catalogRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    //적재 전이거나 비활성화면 호출 측에서 DB 쿼리로 대체
+    public boolean isReady() {
+        return ready;
+    }
+
+    public GameTagSnapshot snapshot() {
+        return snapshot;
+    }
+
+    //조건에 맞고 제외 목록에 없는 게임 중 하나를 균등 확률로 선택 (games.id 반환)
+    public OptionalLong pickRandom(List<String> tagNames, int review, boolean koreanCheck, Boolean freeCheck,
+                                   Collection<Long> excludedAppids) {
+        GameTagSnapshot current = snapshot;
+        RoaringBitmap candidates = current.match(tagNames, review, koreanCheck, freeCheck);
+        if (!excludedAppids.isEmpty()) {
+            candidates.andNot(current.ordinalsOf(excludedAppids));
+        }
+
+        int cardinality = candidates.getCardinality();
+        if (cardinality == 0) {
+            return OptionalLong.empty();
+        }
+        int ordinal = candidates.select(ThreadLocalRandom.current().nextInt(cardinality));
+        return OptionalLong.of(current.gameIdAt(ordinal));
+    }
+
+    //조건에 맞는 게임 중 최대 count개를 중복 없이 균등 추출 (Floyd 샘플링: 후보 집합 크기와 무관하게 count번 선택)
+    public long[] pickRandom(List<String> tagNames, int review, boolean koreanCheck, Boolean freeCheck,
+                             Collection<Long> excludedAppids, int count) {
+        GameTagSnapshot current = snapshot;
+        RoaringBitmap candidates = current.match(tagNames, review, koreanCheck, freeCheck);
+        if (!excludedAppids.isEmpty()) {
+            candidates.andNot(current.ordinalsOf(excludedAppids));
+        }
+
+        int cardinality = candidates.getCardinality();
+        int k = Math.min(count, cardinality);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RoaringBitmap ranks = new RoaringBitmap();
+        for (int j = cardinality - k; j < cardinality; j++) {
+            int r = random.nextInt(j + 1);
+            if (!ranks.checkedAdd(r)) {
+                ranks.add(j);
+            }
+        }
+
+        long[] gameIds = new long[k];
+        int i = 0;
+        for (int rank : ranks) {
+            gameIds[i++] = current.gameIdAt(candidates.select(rank));
+        }
+        //rank 오름차순 = 리뷰 수 순이므로 섞어서 반환
+        for (int j = k - 1; j > 0; j--) {
+            int swap = random.nextInt(j + 1);
+            long tmp = gameIds[j];
+            gameIds[j] = gameIds[swap];
+            gameIds[swap] = tmp;
+        }
+        return gameIds;
+    }
+
+    //크롤러가 games/game_tags를 갱신하므로 주기적으로 다시 적재
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.index.refresh-interval-ms:1800000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            GameTagSnapshot.Builder builder = new GameTagSnapshot.Builder();
+            catalogRepository.streamGames(rs -> builder.addGame(
+                    rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getBoolean(4), rs.getBoolean(5)));
+            catalogRepository.streamTags(rs -> builder.addTag(rs.getLong(1), rs.getString(2)));
+            catalogRepository.streamGameTags(rs -> builder.link(rs.getLong(1), rs.getLong(2)));
+
+            snapshot = builder.build();
+            ready = true;
+            log.info("게임 태그 인덱스 적재 완료: 게임 {}개, {}ms",
+                    snapshot.size(), System.currentTimeMillis() - start);
+            eventPublisher.publishEvent(new GameTagIndexRefreshedEvent(snapshot));
+        } catch (Exception e) {
+            //기존 스냅샷 유지 (최초 적재 실패 시 DB 쿼리로 동작)
+            log.error("게임 태그 인덱스 적재 실패", e);
+        }
+    }
+}
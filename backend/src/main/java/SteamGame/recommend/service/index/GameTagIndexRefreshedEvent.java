@@ -0,0 +1,5 @@
+package SteamGame.recommend.service.index;
+
+//게임 태그 인덱스 스냅샷이 새로 적재됨 (벡터 인덱스 동기화용)
+public record GameTagIndexRefreshedEvent(GameTagSnapshot snapshot) {
+}
@@ -0,0 +1,315 @@
+package SteamGame.recommend.service.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//게임 ordinal(리뷰 수 내림차순) 기준 태그/조건 비트맵 묶음. 만들어진 뒤에는 읽기 전용
+public final class GameTagSnapshot {
+    static final GameTagSnapshot EMPTY = new Builder().build();
+
+    private final int size;
+    private final long[] gameIds;
+    private final long[] appids;
+    private final int[] reviewCounts;
+    private final long[] ordinalByAppid;
+    private final Map<String, RoaringBitmap> tagBitmaps;
+    private final RoaringBitmap[] bitmapsByOrdinal;
+    //log(전체 게임 수 / 태그가 붙은 게임 수), "비슷한 게임" 점수 가중치
+    private final float[] idf;
+    private final String[] tagNames;
+    //tags.id <-> 태그 ordinal (캐시 인코딩용, id는 스냅샷이 바뀌어도 유지됨)
+    private final long[] tagIds;
+    private final long[] tagOrdinalById;
+    private final Map<String, Integer> tagOrdinalByName;
+    //게임 ordinal별 태그 ordinal 목록 (CSR): tagData[tagOffsets[o] .. tagOffsets[o + 1])
+    private final int[] tagOffsets;
+    private final int[] tagData;
+    private final RoaringBitmap all;
+    private final RoaringBitmap korean;
+    private final RoaringBitmap free;
+
+    private GameTagSnapshot(Builder b) {
+        this.size = b.size;
+        this.gameIds = Arrays.copyOf(b.gameIds, b.size);
+        this.appids = Arrays.copyOf(b.appids, b.size);
+        this.reviewCounts = Arrays.copyOf(b.reviewCounts, b.size);
+        this.ordinalByAppid = sortedOrdinals(this.appids, b.size);
+        this.tagBitmaps = b.tagBitmaps;
+        this.bitmapsByOrdinal = b.bitmapsByTag.toArray(new RoaringBitmap[0]);
+        this.idf = new float[bitmapsByOrdinal.length];
+        for (int t = 0; t < idf.length; t++) {
+            int df = bitmapsByOrdinal[t].getCardinality();
+            idf[t] = df == 0 ? 0 : (float) Math.log((double) b.size / df);
+        }
+        this.tagNames = b.tagNames.toArray(new String[0]);
+        this.tagIds = b.tagIds.stream().mapToLong(Long::longValue).toArray();
+        this.tagOrdinalById = sortedOrdinals(this.tagIds, this.tagIds.length);
+        this.tagOrdinalByName = new HashMap<>(tagNames.length * 2);
+        for (int i = 0; i < tagNames.length; i++) {
+            tagOrdinalByName.putIfAbsent(tagNames[i], i);
+        }
+        this.tagOffsets = b.tagOffsets;
+        this.tagData = b.tagData;
+        this.all = new RoaringBitmap();
+        this.all.add(0L, (long) b.size);
+        this.korean = b.korean;
+        this.free = b.free;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long gameIdAt(int ordinal) {
+        return gameIds[ordinal];
+    }
+
+    public long appidAt(int ordinal) {
+        return appids[ordinal];
+    }
+
+    //appid -> ordinal, 인덱스에 없으면 -1
+    public int ordinalOf(long appid) {
+        return lookup(ordinalByAppid, appid);
+    }
+
+    //제외 대상(이미 추천한 appid 등)을 ordinal 비트맵으로 변환
+    public RoaringBitmap ordinalsOf(Collection<Long> appids) {
+        RoaringBitmap ordinals = new RoaringBitmap();
+        for (long appid : appids) {
+            int ordinal = ordinalOf(appid);
+            if (ordinal >= 0) {
+                ordinals.add(ordinal);
+            }
+        }
+        return ordinals;
+    }
+
+    public int tagCount() {
+        return tagNames.length;
+    }
+
+    public String tagName(int tagOrdinal) {
+        return tagNames[tagOrdinal];
+    }
+
+    public long tagIdAt(int tagOrdinal) {
+        return tagIds[tagOrdinal];
+    }
+
+    public float idf(int tagOrdinal) {
+        return idf[tagOrdinal];
+    }
+
+    //게임 ordinal의 태그 ordinal 목록 (복사본)
+    public int[] tagOrdinalsOf(int ordinal) {
+        return Arrays.copyOfRange(tagData, tagOffsets[ordinal], tagOffsets[ordinal + 1]);
+    }
+
+    //태그 이름 -> tags.id, 없으면 -1
+    public long tagIdOf(String tagName) {
+        Integer ordinal = tagOrdinalByName.get(tagName);
+        return ordinal == null ? -1 : tagIds[ordinal];
+    }
+
+    //tags.id -> 태그 이름, 없으면 null
+    public String tagNameById(long tagId) {
+        int ordinal = lookup(tagOrdinalById, tagId);
+        return ordinal < 0 ? null : tagNames[ordinal];
+    }
+
+    //태그가 붙은 게임 수, 없는 태그는 0
+    public int gameCount(String tagName) {
+        RoaringBitmap bitmap = tagBitmaps.get(tagName);
+        return bitmap == null ? 0 : bitmap.getCardinality();
+    }
+
+    //보유/최근 게임들의 태그 빈도 (태그 ordinal별 개수)
+    public int[] tagHistogram(long[] appids) {
+        int[] counts = new int[tagNames.length];
+        for (long appid : appids) {
+            int ordinal = ordinalOf(appid);
+            if (ordinal < 0) {
+                continue;
+            }
+            for (int i = tagOffsets[ordinal]; i < tagOffsets[ordinal + 1]; i++) {
+                counts[tagData[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    //빈도 상위 topN개 태그 이름
+    public List<String> topTags(long[] appids, int topN) {
+        int[] top = TopK.of(tagHistogram(appids), topN);
+        List<String> names = new ArrayList<>(top.length);
+        for (int tagOrdinal : top) {
+            names.add(tagNames[tagOrdinal]);
+        }
+        return names;
+    }
+
+    //seed와 IDF 가중 태그 겹침이 큰 순서로 allowed 안에서 최대 k개 (seed 자신 제외)
+    public int[] similarTo(int seedOrdinal, RoaringBitmap allowed, int k) {
+        return MaxScoreSearch.topK(seedOrdinal, tagOffsets, tagData, bitmapsByOrdinal, idf, allowed, k);
+    }
+
+    //태그 AND + 한글화/무료/리뷰 조건을 만족하는 ordinal 집합 (새 비트맵 반환)
+    public RoaringBitmap match(List<String> tagNames, int review, boolean koreanCheck, Boolean freeCheck) {
+        RoaringBitmap result;
+        if (tagNames.isEmpty()) {
+            result = all.clone();
+        } else {
+            RoaringBitmap[] parts = new RoaringBitmap[tagNames.size()];
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = tagBitmaps.get(tagNames.get(i));
+                if (parts[i] == null) {
+                    return new RoaringBitmap();
+                }
+            }
+            result = parts.length == 1 ? parts[0].clone() : FastAggregation.and(parts);
+        }
+
+        if (koreanCheck) {
+            result.and(korean);
+        }
+        if (freeCheck != null) {
+            if (freeCheck) {
+                result.and(free);
+            } else {
+                result.andNot(free);
+            }
+        }
+
+        //ordinal이 리뷰 수 내림차순이므로 review 이상인 게임은 [0, cutoff) 범위
+        int cutoff = reviewCutoff(review);
+        if (cutoff < size) {
+            result.remove((long) cutoff, (long) size);
+        }
+        return result;
+    }
+
+    private int reviewCutoff(int review) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (reviewCounts[mid] >= review) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    //DB 스트리밍 순서대로 채움: 게임(리뷰 수 내림차순) -> 태그 -> 게임-태그
+    static final class Builder {
+        private int size;
+        private long[] gameIds = new long[1024];
+        private long[] appids = new long[1024];
+        private int[] reviewCounts = new int[1024];
+        private final RoaringBitmap korean = new RoaringBitmap();
+        private final RoaringBitmap free = new RoaringBitmap();
+
+        private final Map<Long, Integer> tagOrdinals = new HashMap<>();
+        private final List<String> tagNames = new ArrayList<>();
+        private final List<Long> tagIds = new ArrayList<>();
+        private final Map<String, RoaringBitmap> tagBitmaps = new HashMap<>();
+        private final List<RoaringBitmap> bitmapsByTag = new ArrayList<>();
+        private int[] tagOffsets;
+        private int[] tagData;
+
+        //(games.id << 32 | ordinal) 정렬 배열, game_tags 적재 시 이진 탐색용
+        private long[] ordinalByGameId;
+
+        void addGame(long id, long appid, int reviewCount, boolean koreanSupport, boolean isFree) {
+            if (size == gameIds.length) {
+                int capacity = size * 2;
+                gameIds = Arrays.copyOf(gameIds, capacity);
+                appids = Arrays.copyOf(appids, capacity);
+                reviewCounts = Arrays.copyOf(reviewCounts, capacity);
+            }
+            gameIds[size] = id;
+            appids[size] = appid;
+            reviewCounts[size] = reviewCount;
+            if (koreanSupport) korean.add(size);
+            if (isFree) free.add(size);
+            size++;
+        }
+
+        void addTag(long tagId, String name) {
+            tagOrdinals.put(tagId, tagNames.size());
+            tagNames.add(name);
+            tagIds.add(tagId);
+            bitmapsByTag.add(new RoaringBitmap());
+        }
+
+        void link(long gameId, long tagId) {
+            if (ordinalByGameId == null) {
+                ordinalByGameId = sortedOrdinals(gameIds, size);
+            }
+            int ordinal = lookup(ordinalByGameId, gameId);
+            Integer tagOrdinal = tagOrdinals.get(tagId);
+            if (ordinal < 0 || tagOrdinal == null) {
+                return;
+            }
+            bitmapsByTag.get(tagOrdinal).add(ordinal);
+        }
+
+        GameTagSnapshot build() {
+            //태그별 비트맵을 뒤집어 게임별 태그 목록(CSR)을 만듦
+            tagOffsets = new int[size + 1];
+            for (RoaringBitmap bitmap : bitmapsByTag) {
+                bitmap.forEach((int ordinal) -> tagOffsets[ordinal + 1]++);
+            }
+            for (int i = 0; i < size; i++) {
+                tagOffsets[i + 1] += tagOffsets[i];
+            }
+            tagData = new int[tagOffsets[size]];
+            int[] cursor = Arrays.copyOf(tagOffsets, size);
+            for (int t = 0; t < bitmapsByTag.size(); t++) {
+                RoaringBitmap bitmap = bitmapsByTag.get(t);
+                int tagOrdinal = t;
+                bitmap.forEach((int ordinal) -> tagData[cursor[ordinal]++] = tagOrdinal);
+                bitmap.runOptimize();
+                tagBitmaps.put(tagNames.get(t), bitmap);
+            }
+            korean.runOptimize();
+            free.runOptimize();
+            return new GameTagSnapshot(this);
+        }
+    }
+
+    //key << 32 | ordinal 형태로 묶어 정렬 (id, appid 모두 int 범위)
+    static long[] sortedOrdinals(long[] keys, int size) {
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = (keys[i] << 32) | i;
+        }
+        Arrays.sort(packed);
+        return packed;
+    }
+
+    static int lookup(long[] packed, long key) {
+        int lo = 0, hi = packed.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long midKey = packed[mid] >>> 32;
+            if (midKey < key) {
+                lo = mid + 1;
+            } else if (midKey > key) {
+                hi = mid - 1;
+            } else {
+                return (int) packed[mid];
+            }
+        }
+        return -1;
+    }
+}
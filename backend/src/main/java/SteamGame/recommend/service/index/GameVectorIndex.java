@@ -0,0 +1,243 @@
+package SteamGame.recommend.service.index;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongPredicate;
+
+//게임 태그 벡터 ANN 인덱스 (HNSW)
+//게임 벡터 = 태그별 IDF x (tags.id로 시드를 정한 ±1 랜덤 벡터)의 합을 정규화 (태그 수 차원 -> dimensions 차원 랜덤 투영)
+//기동 시 스냅샷 파일이 있으면 읽고 없으면 새로 만들며, 이후 게임 인덱스가 갱신될 때마다 새 게임만 추가
+@Slf4j
+@Component
+public class GameVectorIndex {
+    private final GameTagIndex gameTagIndex;
+    private final boolean enabled;
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final long projectionSeed;
+    private final Path snapshotPath;
+
+    //그래프 생성/삽입은 스케줄러 스레드를 막지 않도록 전용 스레드 하나에서만
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "game-vector-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile HnswIndex index;
+
+    public GameVectorIndex(GameTagIndex gameTagIndex,
+                           @Value("${app.ann.enabled:true}") boolean enabled,
+                           @Value("${app.ann.dimensions:64}") int dimensions,
+                           @Value("${app.ann.m:16}") int m,
+                           @Value("${app.ann.ef-construction:100}") int efConstruction,
+                           @Value("${app.ann.ef-search:64}") int efSearch,
+                           @Value("${app.ann.projection-seed:20250401}") long projectionSeed,
+                           @Value("${app.ann.snapshot-path:data/game-vectors.hnsw}") String snapshotPath) {
+        this.gameTagIndex = gameTagIndex;
+        this.enabled = enabled;
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.projectionSeed = projectionSeed;
+        this.snapshotPath = Path.of(snapshotPath);
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    @EventListener
+    public void onIndexRefreshed(GameTagIndexRefreshedEvent event) {
+        if (enabled) {
+            builder.execute(() -> sync(event.snapshot()));
+        }
+    }
+
+    //IDF가 바뀌어도 기존 벡터는 그대로이므로 주기적으로 전체를 새로 만듦
+    @Scheduled(cron = "${app.ann.full-rebuild-cron:0 30 4 * * *}")
+    public void rebuild() {
+        if (enabled && gameTagIndex.isReady()) {
+            builder.execute(() -> {
+                try {
+                    HnswIndex rebuilt = newIndex();
+                    insertMissing(rebuilt, gameTagIndex.snapshot());
+                    index = rebuilt;
+                    save(rebuilt);
+                } catch (Exception e) {
+                    log.error("게임 벡터 인덱스 재생성 실패", e);
+                }
+            });
+        }
+    }
+
+    //보유 게임 벡터를 가중 합산한 프로필 벡터, 인덱스에 있는 게임이 없으면 null
+    public float[] profileVector(long[] appids, double[] weights) {
+        HnswIndex current = index;
+        if (current == null) {
+            return null;
+        }
+        float[] profile = new float[dimensions];
+        boolean any = false;
+        for (int i = 0; i < appids.length; i++) {
+            float[] vector = current.vectorOf(appids[i]);
+            if (vector == null || weights[i] <= 0) {
+                continue;
+            }
+            for (int d = 0; d < dimensions; d++) {
+                profile[d] += (float) (weights[i] * vector[d]);
+            }
+            any = true;
+        }
+        return any && normalize(profile) ? profile : null;
+    }
+
+    //query와 가까운 appid 최대 k개 (accept로 보유/추천 이력/조건 필터)
+    public long[] nearest(float[] query, int k, LongPredicate accept) {
+        HnswIndex current = index;
+        return current == null ? new long[0] : current.search(query, k, efSearch, accept);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    private void sync(GameTagSnapshot snapshot) {
+        try {
+            HnswIndex current = index;
+            if (current == null) {
+                current = load();
+                if (current == null) {
+                    current = newIndex();
+                }
+            }
+            long start = System.currentTimeMillis();
+            int inserted = insertMissing(current, snapshot);
+            index = current;
+            if (inserted > 0) {
+                log.info("게임 벡터 인덱스: {}개 추가 (전체 {}개), {}ms",
+                        inserted, current.size(), System.currentTimeMillis() - start);
+                save(current);
+            }
+        } catch (Exception e) {
+            log.error("게임 벡터 인덱스 동기화 실패", e);
+        }
+    }
+
+    private HnswIndex newIndex() {
+        return new HnswIndex(dimensions, m, efConstruction, fingerprint());
+    }
+
+    //리뷰 수가 많은 게임부터 넣음 (상위 레이어가 대표적인 게임 위주로 구성됨)
+    private int insertMissing(HnswIndex target, GameTagSnapshot snapshot) {
+        float[][] projections = new float[snapshot.tagCount()][];
+        for (int t = 0; t < projections.length; t++) {
+            projections[t] = projection(snapshot.tagIdAt(t));
+        }
+
+        int inserted = 0;
+        float[] vector = new float[dimensions];
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            long appid = snapshot.appidAt(ordinal);
+            if (target.contains(appid)) {
+                continue;
+            }
+            Arrays.fill(vector, 0f);
+            for (int tag : snapshot.tagOrdinalsOf(ordinal)) {
+                float weight = snapshot.idf(tag);
+                float[] p = projections[tag];
+                for (int d = 0; d < dimensions; d++) {
+                    vector[d] += weight * p[d];
+                }
+            }
+            if (normalize(vector) && target.insert(appid, vector)) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    //태그별 ±1 벡터 (tags.id 기준이므로 스냅샷이 바뀌어도 같은 태그는 같은 방향)
+    private float[] projection(long tagId) {
+        SplittableRandom random = new SplittableRandom(projectionSeed ^ (tagId * 0x9E3779B97F4A7C15L));
+        float[] p = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            p[d] = random.nextBoolean() ? 1f : -1f;
+        }
+        return p;
+    }
+
+    private long fingerprint() {
+        return projectionSeed * 31 + dimensions;
+    }
+
+    private static boolean normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return false;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] *= scale;
+        }
+        return true;
+    }
+
+    //투영 방식(시드, 차원)이 같은 스냅샷만 사용
+    private HnswIndex load() {
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            HnswIndex loaded = HnswIndex.readFrom(in);
+            if (loaded.fingerprint() != fingerprint() || loaded.dimensions() != dimensions) {
+                log.info("게임 벡터 스냅샷 설정이 달라 새로 만듭니다.");
+                return null;
+            }
+            log.info("게임 벡터 스냅샷 적재: {}개", loaded.size());
+            return loaded;
+        } catch (IOException e) {
+            log.warn("게임 벡터 스냅샷 적재 실패, 새로 만듭니다: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    //임시 파일에 쓴 뒤 교체 (쓰는 도중 종료돼도 이전 스냅샷 유지)
+    private void save(HnswIndex target) {
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "game-vectors", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                target.writeTo(out);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("게임 벡터 스냅샷 저장 실패: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package SteamGame.recommend.service.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+//HNSW 근사 최근접 이웃 그래프 (정규화된 벡터, 거리 = 1 - 내적)
+//키는 appid. 검색은 동시에 여러 개, 삽입은 한 번에 하나 (읽기/쓰기 락)
+public final class HnswIndex {
+    private static final int MAGIC = 0x484E5357;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final long fingerprint;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private float[] vectors;
+    private long[] keys;
+    //links[node][level] = {이웃 수, 이웃...}
+    private int[][][] links;
+    private final Map<Long, Integer> nodeByKey = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    //fingerprint: 벡터를 만든 방식(투영 시드 등). 스냅샷 파일 호환성 확인용
+    public HnswIndex(int dimensions, int m, int efConstruction, long fingerprint) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.fingerprint = fingerprint;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new SplittableRandom(fingerprint);
+        this.vectors = new float[dimensions * 1024];
+        this.keys = new long[1024];
+        this.links = new int[1024][][];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long key) {
+        lock.readLock().lock();
+        try {
+            return nodeByKey.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //저장된 벡터 복사본, 없으면 null
+    public float[] vectorOf(long key) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodeByKey.get(key);
+            return node == null ? null : Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //이미 있는 키면 false (벡터 갱신은 전체 재생성으로 처리)
+    public boolean insert(long key, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (nodeByKey.containsKey(key)) {
+                return false;
+            }
+            int node = addNode(key, vector, randomLevel());
+            int level = links[node].length - 1;
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return true;
+            }
+
+            int ep = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                ep = greedyClosest(vector, ep, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                long[] candidates = searchLayer(vector, ep, efConstruction, l);
+                int[] selected = selectNeighbors(candidates, l == 0 ? maxM0 : m);
+                int[] own = links[node][l];
+                own[0] = selected.length;
+                System.arraycopy(selected, 0, own, 1, selected.length);
+                for (int neighbor : selected) {
+                    connect(neighbor, node, l);
+                }
+                ep = node(candidates[0]);
+            }
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //query와 가까운 순서로 accept를 통과한 키 최대 k개
+    //필터로 걸러져 모자라면 ef를 늘려 다시 탐색
+    public long[] search(float[] query, int k, int ef, LongPredicate accept) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return new long[0];
+            }
+            int ep = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                ep = greedyClosest(query, ep, l);
+            }
+
+            int currentEf = Math.max(ef, k);
+            while (true) {
+                long[] candidates = searchLayer(query, ep, currentEf, 0);
+                long[] result = new long[k];
+                int found = 0;
+                for (int i = 0; i < candidates.length && found < k; i++) {
+                    long key = keys[node(candidates[i])];
+                    if (accept.test(key)) {
+                        result[found++] = key;
+                    }
+                }
+                if (found == k || currentEf >= size) {
+                    return Arrays.copyOf(result, found);
+                }
+                currentEf = Math.min(size, currentEf * 4);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeLong(fingerprint);
+            out.writeInt(size);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int node = 0; node < size; node++) {
+                out.writeLong(keys[node]);
+                for (int d = 0; d < dimensions; d++) {
+                    out.writeFloat(vectors[node * dimensions + d]);
+                }
+                out.writeByte(links[node].length);
+                for (int[] level : links[node]) {
+                    out.writeShort(level[0]);
+                    for (int i = 1; i <= level[0]; i++) {
+                        out.writeInt(level[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static HnswIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("HNSW 스냅샷 형식이 아닙니다.");
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt(), in.readLong());
+        int size = in.readInt();
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        float[] vector = new float[index.dimensions];
+        for (int node = 0; node < size; node++) {
+            long key = in.readLong();
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] = in.readFloat();
+            }
+            int levels = in.readByte();
+            index.addNode(key, vector, levels - 1);
+            for (int l = 0; l < levels; l++) {
+                int[] level = index.links[node][l];
+                level[0] = in.readShort();
+                for (int i = 1; i <= level[0]; i++) {
+                    level[i] = in.readInt();
+                }
+            }
+        }
+        return index;
+    }
+
+    private int addNode(long key, float[] vector, int level) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            links = Arrays.copyOf(links, capacity);
+        }
+        int node = size++;
+        keys[node] = key;
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+        nodeByKey.put(key, node);
+        return node;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    //neighbor의 이웃 목록에 node 추가, 넘치면 다양성 기준으로 다시 고름
+    private void connect(int neighbor, int node, int level) {
+        int[] list = links[neighbor][level];
+        int capacity = list.length - 1;
+        if (list[0] < capacity) {
+            list[++list[0]] = node;
+            return;
+        }
+        long[] candidates = new long[list[0] + 1];
+        int offset = neighbor * dimensions;
+        for (int i = 1; i <= list[0]; i++) {
+            candidates[i - 1] = pack(distance(vectors, offset, list[i]), list[i]);
+        }
+        candidates[list[0]] = pack(distance(vectors, offset, node), node);
+        Arrays.sort(candidates);
+        int[] selected = selectNeighbors(candidates, capacity);
+        list[0] = selected.length;
+        System.arraycopy(selected, 0, list, 1, selected.length);
+    }
+
+    //HNSW 논문의 휴리스틱: 이미 고른 이웃보다 기준점에 더 가까운 후보만 채택 (태그가 같은 게임끼리 몰리는 것 방지)
+    //남는 자리는 걸러낸 후보 중 가까운 순으로 채움 (태그 구성이 같은 게임이 많아 그대로 두면 그래프가 끊어짐)
+    private int[] selectNeighbors(long[] sortedCandidates, int max) {
+        int limit = Math.min(max, sortedCandidates.length);
+        int[] selected = new int[limit];
+        boolean[] taken = new boolean[sortedCandidates.length];
+        int count = 0;
+        for (int i = 0; i < sortedCandidates.length && count < limit; i++) {
+            int candidate = node(sortedCandidates[i]);
+            float toBase = dist(sortedCandidates[i]);
+            boolean diverse = true;
+            for (int j = 0; j < count; j++) {
+                if (distance(vectors, candidate * dimensions, selected[j]) <= toBase) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate;
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < sortedCandidates.length && count < limit; i++) {
+            if (!taken[i]) {
+                selected[count++] = node(sortedCandidates[i]);
+            }
+        }
+        return selected;
+    }
+
+    private int greedyClosest(float[] query, int ep, int level) {
+        float best = distance(query, ep);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] list = links[ep][level];
+            for (int i = 1; i <= list[0]; i++) {
+                float d = distance(query, list[i]);
+                if (d < best) {
+                    best = d;
+                    ep = list[i];
+                    changed = true;
+                }
+            }
+        }
+        return ep;
+    }
+
+    //해당 레벨에서 query와 가까운 최대 ef개 (거리 오름차순, pack 형태)
+    private long[] searchLayer(float[] query, int ep, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        LongHeap candidates = new LongHeap(ef * 2);
+        LongHeap results = new LongHeap(ef + 1);
+
+        long start = pack(distance(query, ep), ep);
+        visited.set(ep);
+        candidates.push(start);
+        results.push(~start);
+
+        while (candidates.size() > 0) {
+            long current = candidates.pop();
+            if (results.size() >= ef && dist(current) > dist(~results.peek())) {
+                break;
+            }
+            int[] list = links[node(current)][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int neighbor = list[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float d = distance(query, neighbor);
+                if (results.size() < ef || d < dist(~results.peek())) {
+                    long packed = pack(d, neighbor);
+                    candidates.push(packed);
+                    results.push(~packed);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+
+        long[] sorted = new long[results.size()];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = ~results.pop();
+        }
+        return sorted;
+    }
+
+    private float distance(float[] query, int node) {
+        int offset = node * dimensions;
+        float dot = 0;
+        for (int d = 0; d < dimensions; d++) {
+            dot += query[d] * vectors[offset + d];
+        }
+        return 1 - dot;
+    }
+
+    private float distance(float[] base, int baseOffset, int node) {
+        int offset = node * dimensions;
+        float dot = 0;
+        for (int d = 0; d < dimensions; d++) {
+            dot += base[baseOffset + d] * vectors[offset + d];
+        }
+        return 1 - dot;
+    }
+
+    //(거리 비트 << 32 | 노드): 거리가 0 이상이면 long 비교 순서 = 거리 순서
+    private static long pack(float distance, int node) {
+        return ((long) Float.floatToIntBits(Math.max(0f, distance)) << 32) | node;
+    }
+
+    private static int node(long packed) {
+        return (int) packed;
+    }
+
+    private static float dist(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> 32));
+    }
+
+    //long 최소 힙 (최대 힙이 필요하면 ~값을 넣음)
+    private static final class LongHeap {
+        private long[] heap;
+        private int size;
+
+        LongHeap(int capacity) {
+            heap = new long[Math.max(capacity, 16)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        void push(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                if (heap[child] >= last) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
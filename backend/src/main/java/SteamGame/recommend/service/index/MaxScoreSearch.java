@@ -0,0 +1,133 @@
+package SteamGame.recommend.service.index;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+
+//기준 게임과 IDF 가중 태그 겹침이 큰 상위 k개 (MaxScore 가지치기)
+//태그를 상한(IDF) 오름차순으로 두고, 상한 합이 현재 k번째 점수 이하인 앞쪽 태그들은 "비필수"로 분류
+//비필수 태그에만 있는 게임은 k위 안에 들 수 없으므로 필수 태그의 목록만 순회하고 점수는 CSR로 정확히 계산
+final class MaxScoreSearch {
+    private MaxScoreSearch() {
+    }
+
+    static int[] topK(int seed, int[] tagOffsets, int[] tagData, RoaringBitmap[] postings, float[] idf,
+                      RoaringBitmap allowed, int k) {
+        int from = tagOffsets[seed], to = tagOffsets[seed + 1];
+        int terms = to - from;
+        if (terms == 0 || k <= 0) {
+            return new int[0];
+        }
+
+        //질의 태그: IDF 오름차순 정렬, 태그 ordinal별 가중치(점수 계산용)
+        int[] queryTags = Arrays.copyOfRange(tagData, from, to);
+        Integer[] order = new Integer[terms];
+        for (int i = 0; i < terms; i++) order[i] = queryTags[i];
+        Arrays.sort(order, (a, b) -> Float.compare(idf[a], idf[b]));
+        float[] weight = new float[idf.length];
+        float[] prefixBound = new float[terms + 1];
+        PeekableIntIterator[] iterators = new PeekableIntIterator[terms];
+        for (int i = 0; i < terms; i++) {
+            weight[order[i]] = idf[order[i]];
+            prefixBound[i + 1] = prefixBound[i] + idf[order[i]];
+            iterators[i] = postings[order[i]].getIntIterator();
+        }
+
+        //최소 힙 (heapScores[0]이 현재 k번째 점수)
+        float[] heapScores = new float[k];
+        int[] heapDocs = new int[k];
+        int heapSize = 0;
+        float threshold = 0;
+        int nonEssential = 0;
+
+        while (true) {
+            //상한 합이 threshold 이하인 접두 태그는 비필수
+            while (nonEssential < terms && prefixBound[nonEssential + 1] <= threshold) {
+                nonEssential++;
+            }
+            if (nonEssential == terms) {
+                break;
+            }
+
+            //필수 태그 목록들 중 가장 작은 다음 게임
+            int doc = Integer.MAX_VALUE;
+            for (int i = nonEssential; i < terms; i++) {
+                if (iterators[i].hasNext() && iterators[i].peekNext() < doc) {
+                    doc = iterators[i].peekNext();
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            for (int i = nonEssential; i < terms; i++) {
+                iterators[i].advanceIfNeeded(doc + 1);
+            }
+            if (doc == seed || !allowed.contains(doc)) {
+                continue;
+            }
+
+            float score = 0;
+            for (int i = tagOffsets[doc]; i < tagOffsets[doc + 1]; i++) {
+                score += weight[tagData[i]];
+            }
+            //동점이면 먼저 나온(리뷰 수가 많은) 게임 유지
+            if (heapSize < k) {
+                heapScores[heapSize] = score;
+                heapDocs[heapSize] = doc;
+                siftUp(heapScores, heapDocs, heapSize++);
+                if (heapSize == k) {
+                    threshold = heapScores[0];
+                }
+            } else if (score > heapScores[0]) {
+                heapScores[0] = score;
+                heapDocs[0] = doc;
+                siftDown(heapScores, heapDocs, heapSize);
+                threshold = heapScores[0];
+            }
+        }
+
+        //점수 내림차순 (동점은 ordinal 오름차순)
+        Integer[] byScore = new Integer[heapSize];
+        for (int i = 0; i < heapSize; i++) byScore[i] = i;
+        float[] scores = heapScores;
+        int[] docs = heapDocs;
+        Arrays.sort(byScore, (a, b) -> scores[a] != scores[b] ? Float.compare(scores[b], scores[a]) : Integer.compare(docs[a], docs[b]));
+        int[] result = new int[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            result[i] = docs[byScore[i]];
+        }
+        return result;
+    }
+
+    //힙 순서: 점수가 낮을수록, 동점이면 ordinal이 클수록(나중에 나온 게임) 먼저 빠짐
+    private static boolean less(float[] s, int[] d, int a, int b) {
+        return s[a] < s[b] || (s[a] == s[b] && d[a] > d[b]);
+    }
+
+    private static void siftUp(float[] s, int[] d, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(s, d, i, parent)) break;
+            swap(s, d, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(float[] s, int[] d, int size) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, smallest = i;
+            if (l < size && less(s, d, l, smallest)) smallest = l;
+            if (r < size && less(s, d, r, smallest)) smallest = r;
+            if (smallest == i) return;
+            swap(s, d, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(float[] s, int[] d, int a, int b) {
+        float ts = s[a]; s[a] = s[b]; s[b] = ts;
+        int td = d[a]; d[a] = d[b]; d[b] = td;
+    }
+}
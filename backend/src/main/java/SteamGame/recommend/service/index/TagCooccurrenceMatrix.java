@@ -0,0 +1,122 @@
+package SteamGame.recommend.service.index;
+
+import SteamGame.recommend.entity.TagPairKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+//tag_cooccurrence 테이블을 태그 ordinal 기준 삼각 int 배열로 들고 있는 읽기 전용 행렬
+public final class TagCooccurrenceMatrix {
+    private final Map<String, Integer> ordinals;
+    private final String[] names;
+    private final int[] counts;
+
+    private TagCooccurrenceMatrix(Map<String, Integer> ordinals, String[] names, int[] counts) {
+        this.ordinals = ordinals;
+        this.names = names;
+        this.counts = counts;
+    }
+
+    public int tagCount() {
+        return names.length;
+    }
+
+    public int count(String t1, String t2) {
+        Integer i = ordinals.get(t1), j = ordinals.get(t2);
+        if (i == null || j == null || i.equals(j)) {
+            return 0;
+        }
+        return counts[cell(names.length, i, j)];
+    }
+
+    //주어진 태그들 중 threshold 이상이면서 동시 출현 수가 가장 많은 쌍
+    public Optional<TagPairKey> bestPair(List<String> tags, int threshold) {
+        List<TagPairKey> top = topPairs(tags, threshold, 1);
+        return top.isEmpty() ? Optional.empty() : Optional.of(top.get(0));
+    }
+
+    //threshold 이상인 쌍을 동시 출현 수 내림차순으로 최대 k개
+    public List<TagPairKey> topPairs(List<String> tags, int threshold, int k) {
+        int[] ords = new int[tags.size()];
+        int n = 0;
+        for (String tag : tags) {
+            Integer ord = ordinals.get(tag);
+            if (ord != null) {
+                ords[n++] = ord;
+            }
+        }
+
+        //(count << 32 | i << 16 | j) 로 묶어서 정렬 -> 박싱 없이 한 번에 처리
+        long[] found = new long[n * (n - 1) / 2 + 1];
+        int size = 0;
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                if (ords[a] == ords[b]) {
+                    continue;
+                }
+                int count = counts[cell(names.length, ords[a], ords[b])];
+                if (count >= threshold && count > 0) {
+                    found[size++] = ((long) count << 32) | ((long) a << 16) | b;
+                }
+            }
+        }
+        Arrays.sort(found, 0, size);
+
+        List<TagPairKey> pairs = new ArrayList<>(Math.min(k, size));
+        for (int idx = size - 1; idx >= 0 && pairs.size() < k; idx--) {
+            String t1 = names[ords[(int) (found[idx] >>> 16) & 0xFFFF]];
+            String t2 = names[ords[(int) found[idx] & 0xFFFF]];
+            pairs.add(pairKey(t1, t2));
+        }
+        return pairs;
+    }
+
+    //단어순 정렬 (tag_cooccurrence 저장 규칙과 동일)
+    public static TagPairKey pairKey(String t1, String t2) {
+        return t1.compareTo(t2) < 0 ? new TagPairKey(t1, t2) : new TagPairKey(t2, t1);
+    }
+
+    //i != j 인 (i, j)의 상삼각 위치
+    static int cell(int n, int i, int j) {
+        if (i > j) {
+            int t = i; i = j; j = t;
+        }
+        return i * (2 * n - i - 1) / 2 + (j - i - 1);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<long[]> entries = new ArrayList<>();
+
+        public void add(String t1, String t2, int count) {
+            entries.add(new long[]{ordinal(t1), ordinal(t2), count});
+        }
+
+        private int ordinal(String name) {
+            return ordinals.computeIfAbsent(name, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+
+        public TagCooccurrenceMatrix build() {
+            int n = names.size();
+            int[] counts = new int[Math.max(0, n * (n - 1) / 2)];
+            for (long[] e : entries) {
+                if (e[0] != e[1]) {
+                    counts[cell(n, (int) e[0], (int) e[1])] = (int) e[2];
+                }
+            }
+            return new TagCooccurrenceMatrix(Map.copyOf(ordinals), names.toArray(new String[0]), counts);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package SteamGame.recommend.service.index;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//game_id 순으로 들어오는 (게임, 태그 ordinal)을 CSR로 모은 뒤 포크-조인으로 태그 쌍을 셈
+//결과는 TagCooccurrenceMatrix와 같은 상삼각 배치 (i < j 순서로 0부터 연속)
+public final class TagPairCounter {
+    //잎 작업 하나가 최소한 맡을 게임 수 (너무 잘게 나누면 카운터 배열 할당이 더 큼)
+    private static final int MIN_GAMES_PER_TASK = 4096;
+
+    private final int tagCount;
+    private int[] offsets = new int[1024];
+    private int[] tags = new int[8192];
+    private int games;
+    private int tagSize;
+    private long currentGameId = Long.MIN_VALUE;
+
+    public TagPairCounter(int tagCount) {
+        this.tagCount = tagCount;
+    }
+
+    public void add(long gameId, int tagOrdinal) {
+        if (gameId != currentGameId) {
+            if (games + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[games++] = tagSize;
+            currentGameId = gameId;
+        }
+        if (tagSize == tags.length) {
+            tags = Arrays.copyOf(tags, tags.length * 2);
+        }
+        tags[tagSize++] = tagOrdinal;
+    }
+
+    public int gameCount() {
+        return games;
+    }
+
+    //태그 ordinal 집합 하나의 모든 쌍을 counts에 sign만큼 더함 (증분 반영에서 게임별 변경 전/후 집합에 사용)
+    public static void addPairs(int[] counts, int tagCount, int[] tagOrdinals, int sign) {
+        for (int a = 0; a < tagOrdinals.length; a++) {
+            for (int b = a + 1; b < tagOrdinals.length; b++) {
+                if (tagOrdinals[a] != tagOrdinals[b]) {
+                    counts[TagCooccurrenceMatrix.cell(tagCount, tagOrdinals[a], tagOrdinals[b])] += sign;
+                }
+            }
+        }
+    }
+
+    public int[] count(ForkJoinPool pool) {
+        offsets[games] = tagSize;
+        int leafSize = Math.max(MIN_GAMES_PER_TASK, games / (pool.getParallelism() * 4) + 1);
+        return pool.invoke(new CountTask(0, games, leafSize));
+    }
+
+    private final class CountTask extends RecursiveTask<int[]> {
+        //ForkJoinTask가 Serializable이라 붙임 (직렬화해서 쓰지 않음)
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, leafSize;
+
+        CountTask(int from, int to, int leafSize) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= leafSize) {
+                return countRange();
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(from, mid, leafSize);
+            left.fork();
+            int[] right = new CountTask(mid, to, leafSize).compute();
+            int[] merged = left.join();
+            for (int k = 0; k < merged.length; k++) {
+                merged[k] += right[k];
+            }
+            return merged;
+        }
+
+        private int[] countRange() {
+            int[] counts = new int[tagCount * (tagCount - 1) / 2];
+            for (int g = from; g < to; g++) {
+                int start = offsets[g], end = offsets[g + 1];
+                for (int a = start; a < end; a++) {
+                    for (int b = a + 1; b < end; b++) {
+                        if (tags[a] != tags[b]) {
+                            counts[TagCooccurrenceMatrix.cell(tagCount, tags[a], tags[b])]++;
+                        }
+                    }
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package SteamGame.recommend.service.index;
+
+import java.util.Arrays;
+
+//int 점수 배열에서 상위 k개 인덱스를 크기 k의 최소 힙으로 뽑음 (박싱/전체 정렬 없음)
+public final class TopK {
+    private TopK() {
+    }
+
+    //scores[i] > 0 인 i를 점수 내림차순(동점이면 작은 i 먼저)으로 최대 k개
+    public static int[] of(int[] scores, int k) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        long[] heap = new long[k];
+        int size = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] <= 0) {
+                continue;
+            }
+            long key = ((long) scores[i] << 32) | (Integer.MAX_VALUE - i);
+            if (size < k) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+
+        Arrays.sort(heap, 0, size);
+        int[] top = new int[size];
+        for (int i = 0; i < size; i++) {
+            top[i] = Integer.MAX_VALUE - (int) (heap[size - 1 - i] & 0xFFFFFFFFL);
+        }
+        return top;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            long t = heap[parent]; heap[parent] = heap[i]; heap[i] = t;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1, smallest = i;
+            if (left < size && heap[left] < heap[smallest]) smallest = left;
+            if (left + 1 < size && heap[left + 1] < heap[smallest]) smallest = left + 1;
+            if (smallest == i) {
+                return;
+            }
+            long t = heap[smallest]; heap[smallest] = heap[i]; heap[i] = t;
+            i = smallest;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package SteamGame.recommend.service.tag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//여러 패턴을 텍스트 한 번 훑어서 모두 찾는 Aho-Corasick 오토마톤 (생성 후 읽기 전용)
+final class AhoCorasick {
+    //(노드 << 16 | 문자) -> 다음 노드
+    private final Map<Long, Integer> transitions = new HashMap<>();
+    private final int[] fail;
+    //이 노드에서 끝나는 패턴 번호, 없으면 -1
+    private final int[] terminal;
+    //실패 링크를 따라가며 만나는 가장 가까운 terminal 노드, 없으면 -1
+    private final int[] dictionaryLink;
+    private final int[] patternLengths;
+
+    AhoCorasick(List<String> patterns) {
+        List<Integer> terminals = new ArrayList<>();
+        terminals.add(-1);
+        patternLengths = new int[patterns.size()];
+
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            patternLengths[p] = pattern.length();
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                long key = key(node, pattern.charAt(i));
+                Integer next = transitions.get(key);
+                if (next == null) {
+                    next = terminals.size();
+                    terminals.add(-1);
+                    transitions.put(key, next);
+                }
+                node = next;
+            }
+            if (terminals.get(node) < 0) {
+                terminals.set(node, p);
+            }
+        }
+
+        int size = terminals.size();
+        terminal = terminals.stream().mapToInt(Integer::intValue).toArray();
+        fail = new int[size];
+        dictionaryLink = new int[size];
+        Arrays.fill(dictionaryLink, -1);
+
+        //자식 목록을 노드별로 모아 BFS로 실패 링크 계산
+        List<List<long[]>> children = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            children.add(new ArrayList<>());
+        }
+        transitions.forEach((key, child) -> children.get((int) (key >>> 16)).add(new long[]{key & 0xFFFF, child}));
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (long[] edge : children.get(0)) {
+            queue.add((int) edge[1]);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (long[] edge : children.get(node)) {
+                char c = (char) edge[0];
+                int child = (int) edge[1];
+                int f = fail[node];
+                while (f > 0 && !transitions.containsKey(key(f, c))) {
+                    f = fail[f];
+                }
+                Integer target = transitions.get(key(f, c));
+                fail[child] = target != null && target != child ? target : 0;
+                dictionaryLink[child] = terminal[fail[child]] >= 0 ? fail[child] : dictionaryLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    //모든 매칭을 (시작, 끝(제외), 패턴 번호)로 반환
+    List<int[]> findAll(CharSequence text) {
+        List<int[]> matches = new ArrayList<>();
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Integer next;
+            while ((next = transitions.get(key(node, c))) == null && node > 0) {
+                node = fail[node];
+            }
+            node = next == null ? 0 : next;
+
+            for (int out = terminal[node] >= 0 ? node : dictionaryLink[node]; out >= 0; out = dictionaryLink[out]) {
+                int pattern = terminal[out];
+                matches.add(new int[]{i + 1 - patternLengths[pattern], i + 1, pattern});
+            }
+        }
+        return matches;
+    }
+
+    private static long key(int node, char c) {
+        return ((long) node << 16) | c;
+    }
+}
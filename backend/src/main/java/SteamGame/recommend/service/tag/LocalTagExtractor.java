@@ -0,0 +1,157 @@
+package SteamGame.recommend.service.tag;
+
+import SteamGame.recommend.repository.CatalogJdbcRepository;
+import SteamGame.recommend.utils.KoreanTextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+//태그 이름 + 별칭 사전으로 입력 문장에서 태그를 직접 찾음 (Gemini 호출 전 단계)
+//신뢰도 = 내용어(조사 제거, 불용어 제외) 중 태그 매칭으로 덮인 비율
+@Slf4j
+@Service
+public class LocalTagExtractor {
+    private static final int MAX_TAGS = 4;
+    private static final Set<String> STOPWORDS = Set.of(
+            "게임", "추천", "추천해줘", "추천해", "추천좀", "해줘", "알려줘", "찾아줘", "할", "수", "있는", "하는",
+            "할만한", "같은", "좀", "거", "것", "그런", "재밌는", "재미있는", "싶어", "싶은", "원해", "뭐", "있어",
+            "하기", "좋은", "위한", "때", "game", "games");
+
+    private final CatalogJdbcRepository catalogRepository;
+    private final double minConfidence;
+
+    private volatile Dictionary dictionary;
+
+    public LocalTagExtractor(CatalogJdbcRepository catalogRepository,
+                             @Value("${app.tag.local-extractor.min-confidence:0.6}") double minConfidence) {
+        this.catalogRepository = catalogRepository;
+        this.minConfidence = minConfidence;
+    }
+
+    //confident가 false여도 tags에는 찾은 태그가 들어 있음 (Gemini를 못 쓸 때 대체용)
+    public record Result(List<String> tags, double confidence, boolean confident) {
+    }
+
+    //정규화된 입력에서 추출, 사전이 아직 없으면 빈 결과
+    public Result extract(String normalizedInput) {
+        Dictionary current = dictionary;
+        if (current == null) {
+            return new Result(List.of(), 0, false);
+        }
+
+        //공백을 뺀 문자열에서 매칭 ("오픈월드"와 "오픈 월드" 모두 잡기 위해), 글자별 어절 번호 기록
+        String[] tokens = normalizedInput.split(" ");
+        StringBuilder compact = new StringBuilder(normalizedInput.length());
+        int[] tokenStarts = new int[tokens.length];
+        for (int t = 0; t < tokens.length; t++) {
+            tokenStarts[t] = compact.length();
+            compact.append(tokens[t]);
+        }
+
+        //긴 매칭 우선으로 겹치지 않게 선택
+        List<int[]> matches = current.automaton.findAll(compact);
+        matches.sort((a, b) -> (b[1] - b[0]) != (a[1] - a[0]) ? (b[1] - b[0]) - (a[1] - a[0]) : a[0] - b[0]);
+        boolean[] covered = new boolean[compact.length()];
+        Set<String> tags = new LinkedHashSet<>();
+        for (int[] match : matches) {
+            if (overlaps(covered, match[0], match[1])) {
+                continue;
+            }
+            Arrays.fill(covered, match[0], match[1], true);
+            tags.addAll(current.targets.get(match[2]));
+        }
+
+        int contentTokens = 0, coveredTokens = 0;
+        for (int t = 0; t < tokens.length; t++) {
+            String stem = KoreanTextUtils.stripParticle(tokens[t]);
+            if (stem.isEmpty() || STOPWORDS.contains(stem) || STOPWORDS.contains(tokens[t])) {
+                continue;
+            }
+            contentTokens++;
+            if (allCovered(covered, tokenStarts[t], tokenStarts[t] + stem.length())) {
+                coveredTokens++;
+            }
+        }
+
+        double confidence = contentTokens == 0 ? 0 : (double) coveredTokens / contentTokens;
+        List<String> found = tags.stream().limit(MAX_TAGS).toList();
+        return new Result(found, confidence, !found.isEmpty() && confidence >= minConfidence);
+    }
+
+    //tags 테이블(크롤러가 갱신) 기준으로 오토마톤 재생성
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.index.refresh-interval-ms:1800000}")
+    public void refresh() {
+        try {
+            Set<String> tagNames = new HashSet<>();
+            catalogRepository.streamTags(rs -> tagNames.add(rs.getString(2)));
+
+            //패턴(공백 제거한 정규형) -> 태그 목록
+            Map<String, Set<String>> patterns = new LinkedHashMap<>();
+            for (String name : tagNames) {
+                patterns.computeIfAbsent(compactForm(name), k -> new LinkedHashSet<>()).add(name);
+            }
+            for (Map.Entry<Object, Object> alias : loadAliases().entrySet()) {
+                for (String target : alias.getValue().toString().split(",")) {
+                    if (tagNames.contains(target.strip())) {
+                        patterns.computeIfAbsent(compactForm(alias.getKey().toString()), k -> new LinkedHashSet<>())
+                                .add(target.strip());
+                    }
+                }
+            }
+            patterns.remove("");
+
+            List<String> keys = new ArrayList<>(patterns.keySet());
+            List<List<String>> targets = keys.stream().map(k -> List.copyOf(patterns.get(k))).toList();
+            dictionary = new Dictionary(new AhoCorasick(keys), targets);
+            log.info("로컬 태그 사전 적재 완료: 패턴 {}개", keys.size());
+        } catch (Exception e) {
+            log.error("로컬 태그 사전 적재 실패", e);
+        }
+    }
+
+    private Properties loadAliases() throws IOException {
+        Properties aliases = new Properties();
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource("tag-aliases.properties").getInputStream(), StandardCharsets.UTF_8)) {
+            aliases.load(reader);
+        }
+        return aliases;
+    }
+
+    private static String compactForm(String text) {
+        return KoreanTextUtils.normalize(text).replace(" ", "");
+    }
+
+    private static boolean overlaps(boolean[] covered, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (covered[i]) return true;
+        }
+        return false;
+    }
+
+    private static boolean allCovered(boolean[] covered, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!covered[i]) return false;
+        }
+        return true;
+    }
+
+    private record Dictionary(AhoCorasick automaton, List<List<String>> targets) {
+    }
+}
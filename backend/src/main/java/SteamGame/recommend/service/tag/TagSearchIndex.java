@@ -0,0 +1,221 @@
+package SteamGame.recommend.service.tag;
+
+import SteamGame.recommend.dto.SteamDTO;
+import SteamGame.recommend.service.index.GameTagIndex;
+import SteamGame.recommend.service.index.GameTagSnapshot;
+import SteamGame.recommend.utils.KoreanTextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//태그 자동완성 인덱스: 접두사 트라이 + 바이그램 역색인, 이름/초성 두 벌
+//태그를 게임 수 내림차순으로 번호(rank)를 매겨 두므로 목록은 항상 번호 오름차순 = 랭킹 순
+@Slf4j
+@Service
+public class TagSearchIndex {
+    public static final int MAX_LIMIT = 50;
+
+    private final TagSnapshotService tagSnapshotService;
+    private final GameTagIndex gameTagIndex;
+
+    private volatile Index index;
+
+    public TagSearchIndex(TagSnapshotService tagSnapshotService, GameTagIndex gameTagIndex) {
+        this.tagSnapshotService = tagSnapshotService;
+        this.gameTagIndex = gameTagIndex;
+    }
+
+    //초성이 섞인 입력("ㄹㄱ", "로ㄱ")은 초성 필드에서, 나머지는 이름 필드에서 검색
+    public List<SteamDTO.TagSuggestion> search(String query, int limit) {
+        Index current = index;
+        if (current == null) {
+            refresh();
+            current = index;
+        }
+        String compact = compact(query);
+        if (current == null || compact.isEmpty()) {
+            return List.of();
+        }
+
+        int[] ranks = KoreanTextUtils.containsChoseong(compact)
+                ? current.choseong.search(KoreanTextUtils.choseong(compact), limit)
+                : current.text.search(compact, limit);
+        List<SteamDTO.TagSuggestion> result = new ArrayList<>(ranks.length);
+        for (int rank : ranks) {
+            result.add(new SteamDTO.TagSuggestion(current.names[rank], current.gameCounts[rank]));
+        }
+        return result;
+    }
+
+    //태그 스냅샷이나 게임 인덱스가 바뀐 경우에만 다시 만듦 (참조 비교)
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.tags.snapshot.check-interval-ms:60000}")
+    public synchronized void refresh() {
+        try {
+            TagSnapshotService.Snapshot tags = tagSnapshotService.current();
+            GameTagSnapshot games = gameTagIndex.snapshot();
+            Index current = index;
+            if (current != null && current.tags == tags && current.games == games) {
+                return;
+            }
+            index = build(tags, games);
+        } catch (Exception e) {
+            log.error("태그 검색 인덱스 생성 실패", e);
+        }
+    }
+
+    private static Index build(TagSnapshotService.Snapshot tags, GameTagSnapshot games) {
+        String[] names = tags.names().toArray(new String[0]);
+        Map<String, Integer> counts = new HashMap<>();
+        for (String name : names) {
+            counts.put(name, games.gameCount(name));
+        }
+        Arrays.sort(names, Comparator.<String>comparingInt(counts::get).reversed().thenComparing(Comparator.naturalOrder()));
+
+        int[] gameCounts = new int[names.length];
+        String[] textKeys = new String[names.length];
+        String[] choseongKeys = new String[names.length];
+        for (int rank = 0; rank < names.length; rank++) {
+            gameCounts[rank] = counts.get(names[rank]);
+            textKeys[rank] = compact(names[rank]);
+            choseongKeys[rank] = KoreanTextUtils.choseong(textKeys[rank]);
+        }
+        return new Index(tags, games, names, gameCounts, new Field(textKeys), new Field(choseongKeys));
+    }
+
+    //소문자 + 공백 제거 ("오픈 월드" == "오픈월드")
+    private static String compact(String text) {
+        return KoreanTextUtils.normalize(text).replace(" ", "");
+    }
+
+    private record Index(TagSnapshotService.Snapshot tags, GameTagSnapshot games,
+                         String[] names, int[] gameCounts, Field text, Field choseong) {
+    }
+
+    //키 목록 하나에 대한 접두사 트라이 + n-gram(1, 2글자) 역색인
+    static final class Field {
+        private final String[] keys;
+        private final Node root = new Node();
+        private final Map<Integer, int[]> grams;
+
+        Field(String[] keys) {
+            this.keys = keys;
+            Map<Integer, List<Integer>> postings = new HashMap<>();
+            //rank 순으로 넣으므로 각 노드/역색인 목록이 자동으로 정렬됨
+            for (int rank = 0; rank < keys.length; rank++) {
+                String key = keys[rank];
+                Node node = root;
+                node.add(rank);
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                    node.add(rank);
+                }
+                for (int i = 0; i < key.length(); i++) {
+                    addPosting(postings, gram(key, i, 1), rank);
+                    if (i + 1 < key.length()) {
+                        addPosting(postings, gram(key, i, 2), rank);
+                    }
+                }
+            }
+            this.grams = new HashMap<>(postings.size() * 2);
+            postings.forEach((gram, ranks) -> grams.put(gram, ranks.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        //접두사 일치를 먼저, 모자라면 중간 일치로 채움 (각각 rank 순)
+        int[] search(String query, int limit) {
+            int[] result = new int[limit];
+            int size = 0;
+
+            Node node = root;
+            for (int i = 0; i < query.length() && node != null; i++) {
+                node = node.children.get(query.charAt(i));
+            }
+            if (node != null) {
+                for (int i = 0; i < node.size && size < limit; i++) {
+                    result[size++] = node.ranks[i];
+                }
+            }
+            if (size == limit) {
+                return result;
+            }
+
+            for (int rank : candidates(query)) {
+                if (size == limit) {
+                    break;
+                }
+                if (!keys[rank].startsWith(query) && keys[rank].contains(query)) {
+                    result[size++] = rank;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        //질의의 모든 n-gram을 포함하는 후보 (교집합, 가장 짧은 목록부터)
+        private int[] candidates(String query) {
+            int n = query.length() == 1 ? 1 : 2;
+            List<int[]> lists = new ArrayList<>();
+            for (int i = 0; i + n <= query.length(); i++) {
+                int[] list = grams.get(gram(query, i, n));
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.length));
+            int[] result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+            return result;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, k = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] == b[j]) {
+                    out[k++] = a[i];
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, k);
+        }
+
+        //1글자는 문자 코드, 2글자는 (앞 글자 << 16 | 뒤 글자). 앞 글자가 0일 수 없으므로 겹치지 않음
+        private static int gram(String s, int at, int n) {
+            return n == 1 ? s.charAt(at) : (s.charAt(at) << 16) | s.charAt(at + 1);
+        }
+
+        private static void addPosting(Map<Integer, List<Integer>> postings, int gram, int rank) {
+            List<Integer> list = postings.computeIfAbsent(gram, g -> new ArrayList<>());
+            //같은 키 안에서 같은 n-gram이 반복될 수 있음
+            if (list.isEmpty() || list.get(list.size() - 1) != rank) {
+                list.add(rank);
+            }
+        }
+    }
+
+    //하위 키들의 rank를 상위 MAX_LIMIT개까지만 보관
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final int[] ranks = new int[MAX_LIMIT];
+        private int size;
+
+        void add(int rank) {
+            if (size < MAX_LIMIT) {
+                ranks[size++] = rank;
+            }
+        }
+    }
+}
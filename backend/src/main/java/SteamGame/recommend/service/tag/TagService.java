@@ -1,13 +1,15 @@
 package SteamGame.recommend.service.tag;
 
-import SteamGame.recommend.entity.Tag;
 import SteamGame.recommend.repository.TagRepository;
-import SteamGame.recommend.service.api.SteamApiService;
-import com.fasterxml.jackson.databind.JsonNode;
+import SteamGame.recommend.service.index.GameTagIndex;
+import SteamGame.recommend.service.index.GameTagSnapshot;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -18,40 +20,29 @@ import java.util.stream.Collectors;
 @Service
 public class TagService {
     private final ObjectMapper objectMapper;
-    private final SteamApiService steamApiService;
     private final TagRepository tagRepository;
+    private final GameTagIndex gameTagIndex;
 
-    private static final Set<String> ALLOWED_ENGLISH =
-            Set.of("2D","3D","RPG","FPS","MMO");
-
-    // 한글이 하나라도 들어있는지 체크하는 정규식
-    private static final Pattern KOREAN_PATTERN = Pattern.compile(".*[\\uAC00-\\uD7A3].*");
+    // Gemini 답변 텍스트 안의 JSON 배열 부분
+    private static final Pattern TAG_ARRAY_PATTERN = Pattern.compile("\\[.*?\\]", Pattern.DOTALL);
+    private static final int MAX_EXTRACTED_TAGS = 4;
 
     public TagService(ObjectMapper objectMapper,
-                      SteamApiService steamApiService,
-                      TagRepository tagRepository){
+                      TagRepository tagRepository,
+                      GameTagIndex gameTagIndex){
         this.objectMapper = objectMapper;
-        this.steamApiService = steamApiService;
         this.tagRepository = tagRepository;
+        this.gameTagIndex = gameTagIndex;
     }
     public String[] extractTags(String geminiResponse) {
-        try {
-            JsonNode root = objectMapper.readTree(geminiResponse);
-
-            JsonNode textNode = root.path("candidates").get(0)
-                    .path("content").path("parts").get(0).path("text");
+        try (JsonParser parser = objectMapper.getFactory().createParser(geminiResponse)) {
+            String text = readAnswerText(parser);
 
-            if (!textNode.isMissingNode()) {
-                String text = textNode.asText();
-
-                Pattern pattern = Pattern.compile("\\[.*?\\]", Pattern.DOTALL);
-                Matcher matcher = pattern.matcher(text);
+            if (text != null) {
+                Matcher matcher = TAG_ARRAY_PATTERN.matcher(text);
 
                 if (matcher.find()) {
-                    String jsonArray = matcher.group(0);
-                    String[] tags = objectMapper.readValue(jsonArray, String[].class);
-
-                    return Arrays.copyOf(tags, Math.min(tags.length, 4));
+                    return readTagArray(matcher.group(0));
                 } else {
                     log.warn("태그 배열 형식을 파싱하지 못했습니다. 응답 텍스트: {}", text);
                 }
@@ -65,18 +56,81 @@ public class TagService {
         return new String[0];
     }
 
-    public List<String> getTopTagsByProfile(String steamId, int topN){
-        List<Long> appids = steamApiService.getOwnedGameIds(steamId);
+    //candidates[0].content.parts[0].text 까지 트리 없이 한 번에 내려감
+    private String readAnswerText(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT
+                || !moveToField(parser, "candidates") || parser.currentToken() != JsonToken.START_ARRAY
+                || parser.nextToken() != JsonToken.START_OBJECT
+                || !moveToField(parser, "content") || parser.currentToken() != JsonToken.START_OBJECT
+                || !moveToField(parser, "parts") || parser.currentToken() != JsonToken.START_ARRAY
+                || parser.nextToken() != JsonToken.START_OBJECT
+                || !moveToField(parser, "text") || parser.currentToken() != JsonToken.VALUE_STRING) {
+            return null;
+        }
+        return parser.getText();
+    }
 
-        if(appids.isEmpty()){
-            return List.of();
+    //현재 객체 안에서 field 값 위치로 이동 (다른 필드는 건너뜀)
+    private boolean moveToField(JsonParser parser, String field) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (field.equals(name)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    //["태그", ...] 에서 문자열을 최대 MAX_EXTRACTED_TAGS개까지만 읽음
+    private String[] readTagArray(String jsonArray) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(jsonArray)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return new String[0];
+            }
+            String[] tags = new String[MAX_EXTRACTED_TAGS];
+            int size = 0;
+            JsonToken token;
+            while (size < tags.length && (token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.VALUE_STRING) {
+                    tags[size++] = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return Arrays.copyOf(tags, size);
+        }
+    }
+
+    //게임 목록의 태그 빈도 상위 topN개. 인덱스가 있으면 DB 조회 없이 메모리에서 계산
+    public List<String> getTopTagsByAppIds(long[] appids, int topN){
+        if (gameTagIndex.isReady()) {
+            return gameTagIndex.snapshot().topTags(appids, topN);
         }
 
-        List<String> allTags = tagRepository.findTagNamesByAppIds(appids);
+        List<String> allTags = tagRepository.findTagNamesByAppIds(Arrays.stream(appids).boxed().toList());
 
         return getTopTags(allTags,topN);
     }
 
+    //tags 중 appid 게임에 실제로 붙은 태그만 (tags 순서 유지). 인덱스에 없는 게임이면 빈 목록
+    public List<String> sharedTags(long appid, List<String> tags){
+        if (!gameTagIndex.isReady()) {
+            return List.of();
+        }
+        GameTagSnapshot snapshot = gameTagIndex.snapshot();
+        int ordinal = snapshot.ordinalOf(appid);
+        if (ordinal < 0) {
+            return List.of();
+        }
+        Set<String> gameTags = new HashSet<>();
+        for (int tagOrdinal : snapshot.tagOrdinalsOf(ordinal)) {
+            gameTags.add(snapshot.tagName(tagOrdinal));
+        }
+        return tags.stream().filter(gameTags::contains).toList();
+    }
+
     //게임 랜덤 추천 셔플용
     public List<String> shuffleTag(List<String> topTags, int min, int max){
         List<String> shuffled = new ArrayList<>(topTags);
@@ -99,16 +153,4 @@ public class TagService {
 
         return tag_list;
     }
-
-    public List<String> getFilteredTagNames() {
-        return tagRepository.findAll().stream()
-                .map(Tag::getName)
-                .filter(name ->
-                        KOREAN_PATTERN.matcher(name).matches()
-                                || ALLOWED_ENGLISH.contains(name)
-                )
-                .distinct()
-                .sorted()
-                .toList();
-    }
 }
@@ -0,0 +1,101 @@
+package SteamGame.recommend.service.tag;
+
+import SteamGame.recommend.repository.CatalogJdbcRepository;
+import SteamGame.recommend.utils.EncryptUtils;
+import SteamGame.recommend.utils.KoreanTextUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+//GET /api/tags 응답을 미리 직렬화해 둔 스냅샷. 태그 테이블이 바뀐 경우에만 다시 만듦
+@Slf4j
+@Service
+public class TagSnapshotService {
+    private static final Set<String> ALLOWED_ENGLISH =
+            Set.of("2D","3D","RPG","FPS","MMO");
+
+    private final CatalogJdbcRepository catalogRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public TagSnapshotService(CatalogJdbcRepository catalogRepository, ObjectMapper objectMapper) {
+        this.catalogRepository = catalogRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    //names는 정렬/중복 제거된 목록, etag는 JSON 본문의 SHA-256 (따옴표 제외)
+    public record Snapshot(String version, List<String> names, byte[] json, byte[] gzip, String etag) {
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = build(catalogRepository.tagVersion());
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    //COUNT/MAX(id)만 비교하고 바뀌었을 때만 전체를 다시 읽음
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.tags.snapshot.check-interval-ms:60000}")
+    public void refresh() {
+        try {
+            String version = catalogRepository.tagVersion();
+            Snapshot current = snapshot;
+            if (current != null && current.version().equals(version)) {
+                return;
+            }
+            Snapshot rebuilt = build(version);
+            synchronized (this) {
+                snapshot = rebuilt;
+            }
+            log.info("태그 스냅샷 갱신: {}개, etag {}", rebuilt.names().size(), rebuilt.etag());
+        } catch (Exception e) {
+            log.error("태그 스냅샷 갱신 실패", e);
+        }
+    }
+
+    private Snapshot build(String version) {
+        TreeSet<String> names = new TreeSet<>();
+        catalogRepository.streamTags(rs -> {
+            String name = rs.getString(2);
+            if (KoreanTextUtils.containsHangul(name) || ALLOWED_ENGLISH.contains(name)) {
+                names.add(name);
+            }
+        });
+
+        List<String> sorted = List.copyOf(names);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(sorted);
+            return new Snapshot(version, sorted, json, gzip(json), EncryptUtils.sha256(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("태그 목록 직렬화 실패", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,21 @@
+package SteamGame.recommend.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class ClientIdentifier {
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final int MAX_LENGTH = 64;
+
+    private ClientIdentifier() {
+    }
+
+    //프론트가 보낸 세션/기기 식별자를 우선 사용, 없으면 접속 IP
+    public static String resolve(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId == null || clientId.isBlank()) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        clientId = clientId.strip();
+        return "c:" + (clientId.length() > MAX_LENGTH ? clientId.substring(0, MAX_LENGTH) : clientId);
+    }
+}
@@ -9,9 +9,13 @@ public class EncryptUtils {
     }
 
     public static String sha256(String input) {
+        return sha256(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sha256(byte[] input) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] sha256Bytes = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+            byte[] sha256Bytes = digest.digest(input);
 
             StringBuilder hexString = new StringBuilder();
             for (byte b : sha256Bytes) {
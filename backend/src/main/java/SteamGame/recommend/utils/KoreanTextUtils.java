@@ -0,0 +1,82 @@
+package SteamGame.recommend.utils;
+
+import java.text.Normalizer;
+
+public class KoreanTextUtils {
+    //긴 것부터 검사 (이랑 -> 랑 순서)
+    private static final String[] PARTICLES = {
+            "에서는", "이랑", "에서", "으로", "하고", "처럼", "까지", "부터",
+            "랑", "와", "과", "을", "를", "은", "는", "이", "가", "의", "도", "만", "로", "에"
+    };
+
+    //초성 순서 (유니코드 음절 = 0xAC00 + (초성 * 21 + 중성) * 28 + 종성)
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+
+    private KoreanTextUtils() {
+    }
+
+    //한글 음절을 초성으로 바꿈 ("로그라이크" -> "ㄹㄱㄹㅇㅋ"), 그 외 문자는 그대로
+    public static String choseong(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '\uAC00' && c <= '\uD7A3') {
+                sb.append(CHOSEONG.charAt((c - 0xAC00) / (21 * 28)));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    //초성 자모(ㄱ~ㅎ)가 하나라도 있는지 -> 초성 검색으로 처리
+    public static boolean containsChoseong(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (CHOSEONG.indexOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //한글 음절이 하나라도 있는지
+    public static boolean containsHangul(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '\uAC00' && c <= '\uD7A3') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //어절 끝의 조사 하나를 떼어냄 (조사만 남는 경우는 그대로)
+    public static String stripParticle(String token) {
+        for (String particle : PARTICLES) {
+            if (token.length() > particle.length() && token.endsWith(particle)) {
+                return token.substring(0, token.length() - particle.length());
+            }
+        }
+        return token;
+    }
+
+    //NFC 정규화 + 소문자, 문장부호/연속 공백은 공백 하나로
+    public static String normalize(String input) {
+        String nfc = Normalizer.normalize(input, Normalizer.Form.NFC);
+        StringBuilder sb = new StringBuilder(nfc.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < nfc.length(); i++) {
+            char c = nfc.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && sb.length() > 0) {
+                sb.append(' ');
+            }
+            pendingSpace = false;
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package SteamGame.recommend.utils;
+
+import java.util.Arrays;
+
+//long 배열 <-> 바이트 (정렬 후 차분값을 varint로 저장, appid 목록이 JSON 대비 수 배 작아짐)
+//순서는 보존하지 않음 (보유/최근 게임 목록은 집합으로만 사용)
+public class LongArrayCodec {
+    private LongArrayCodec() {
+    }
+
+    public static byte[] encode(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        byte[] out = new byte[10 * (sorted.length + 1)];
+        int pos = writeVarint(out, 0, sorted.length);
+        long prev = 0;
+        for (long value : sorted) {
+            pos = writeVarint(out, pos, value - prev);
+            prev = value;
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    public static long[] decode(byte[] bytes) {
+        int[] pos = {0};
+        long[] values = new long[(int) readVarint(bytes, pos)];
+        long prev = 0;
+        for (int i = 0; i < values.length; i++) {
+            prev += readVarint(bytes, pos);
+            values[i] = prev;
+        }
+        return values;
+    }
+
+    //(key, value) 쌍: key 오름차순으로 정렬해 key는 차분 varint, value는 varint (value는 0 이상)
+    public static byte[] encodePairs(long[] keys, long[] values) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        byte[] out = new byte[20 * (keys.length + 1)];
+        int pos = writeVarint(out, 0, keys.length);
+        long prev = 0;
+        for (int i : order) {
+            pos = writeVarint(out, pos, keys[i] - prev);
+            pos = writeVarint(out, pos, values[i]);
+            prev = keys[i];
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    //{keys, values}
+    public static long[][] decodePairs(byte[] bytes) {
+        int[] pos = {0};
+        int size = (int) readVarint(bytes, pos);
+        long[] keys = new long[size];
+        long[] values = new long[size];
+        long prev = 0;
+        for (int i = 0; i < size; i++) {
+            prev += readVarint(bytes, pos);
+            keys[i] = prev;
+            values[i] = readVarint(bytes, pos);
+        }
+        return new long[][]{keys, values};
+    }
+
+    static int writeVarint(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    static long readVarint(byte[] in, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
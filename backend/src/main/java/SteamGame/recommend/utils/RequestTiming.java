@@ -0,0 +1,131 @@
+package SteamGame.recommend.utils;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//요청 하나의 구간별(Steam, DB, Redis, Gemini) 소요 시간 누적
+//필터가 요청 스레드에 묶어 두면 각 호출 지점은 System.nanoTime() 시작값만 넘겨 기록 (할당 없음)
+//묶인 기록이 없는 스레드(스케줄러, 인덱스 적재 등)에서는 아무것도 하지 않음
+public final class RequestTiming {
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    public enum Stage {
+        STEAM("steam"),
+        DB("db"),
+        REDIS("redis"),
+        GEMINI("gemini");
+
+        private final String metric;
+
+        Stage(String metric) {
+            this.metric = metric;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    //여러 스레드가 같은 요청의 구간을 나눠 기록할 수 있으므로 원자적으로 누적
+    private final AtomicLongArray nanos = new AtomicLongArray(STAGES.length);
+    private final AtomicIntegerArray calls = new AtomicIntegerArray(STAGES.length);
+    private volatile List<String> tags = List.of();
+
+    //현재 스레드에 묶고 이전 값을 돌려줌 (복원용)
+    public static RequestTiming bind(RequestTiming timing) {
+        RequestTiming previous = CURRENT.get();
+        CURRENT.set(timing);
+        return previous;
+    }
+
+    public static void restore(RequestTiming previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    //startNanos는 호출 직전의 System.nanoTime()
+    public static void record(Stage stage, long startNanos) {
+        record(CURRENT.get(), stage, startNanos);
+    }
+
+    //요청 스레드 밖(Netty 이벤트 루프 등)에서 끝나는 호출은 시작할 때 잡아 둔 기록에 직접 남김
+    public static void record(RequestTiming timing, Stage stage, long startNanos) {
+        if (timing != null) {
+            timing.nanos.addAndGet(stage.ordinal(), System.nanoTime() - startNanos);
+            timing.calls.incrementAndGet(stage.ordinal());
+        }
+    }
+
+    //현재 요청의 기록을 작업 스레드에도 묶어 실행하는 Executor
+    //CompletableFuture 후속 단계가 기록이 없는 스레드에서 이어져도 같은 요청으로 집계됨
+    public static Executor propagating(Executor executor) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return executor;
+        }
+        return task -> executor.execute(() -> {
+            RequestTiming previous = bind(timing);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        });
+    }
+
+    //추천에 사용한 태그 (느린 요청 로그용)
+    public static void tags(List<String> tags) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && tags != null) {
+            timing.tags = tags;
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long nanos(Stage stage) {
+        return nanos.get(stage.ordinal());
+    }
+
+    public int calls(Stage stage) {
+        return calls.get(stage.ordinal());
+    }
+
+    public List<String> usedTags() {
+        return tags;
+    }
+
+    //Server-Timing 헤더 값: steam;dur=12.3;desc="calls=1", db;dur=4.1;desc="calls=3", ..., total;dur=20.5 (호출이 없던 구간은 생략)
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(96);
+        for (Stage stage : STAGES) {
+            if (calls(stage) == 0) {
+                continue;
+            }
+            header.append(stage.metric()).append(";dur=").append(millis(nanos(stage)))
+                    .append(";desc=\"calls=").append(calls(stage)).append("\", ");
+        }
+        return header.append("total;dur=").append(millis(elapsedNanos())).toString();
+    }
+
+    //밀리초, 소수점 한 자리
+    public static String millis(long nanos) {
+        long tenths = (nanos + 50_000) / 100_000;
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+}
@@ -0,0 +1,59 @@
+package SteamGame.recommend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+//태그 이름 목록 <-> 바이트. 사전에 있는 태그는 tags.id를 varint로, 없는 태그(Gemini가 만든 이름 등)만 UTF-8 그대로 저장
+//형식: 개수, 태그마다 (id + 1) 또는 0 뒤에 (길이, UTF-8 바이트)
+public class TagListCodec {
+    private TagListCodec() {
+    }
+
+    public static byte[] encode(List<String> tags, ToLongFunction<String> idOf) {
+        int capacity = 10;
+        for (String tag : tags) {
+            capacity += 20 + tag.length() * 3;
+        }
+        byte[] out = new byte[capacity];
+        int pos = LongArrayCodec.writeVarint(out, 0, tags.size());
+        for (String tag : tags) {
+            long id = idOf.applyAsLong(tag);
+            if (id >= 0) {
+                pos = LongArrayCodec.writeVarint(out, pos, id + 1);
+            } else {
+                byte[] utf8 = tag.getBytes(StandardCharsets.UTF_8);
+                pos = LongArrayCodec.writeVarint(out, pos, 0);
+                pos = LongArrayCodec.writeVarint(out, pos, utf8.length);
+                System.arraycopy(utf8, 0, out, pos, utf8.length);
+                pos += utf8.length;
+            }
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    //사전에서 id를 찾지 못하면(태그 삭제, 인덱스 미적재) null -> 캐시 미스로 처리
+    public static List<String> decode(byte[] bytes, LongFunction<String> nameOf) {
+        int[] pos = {0};
+        int count = (int) LongArrayCodec.readVarint(bytes, pos);
+        List<String> tags = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long code = LongArrayCodec.readVarint(bytes, pos);
+            if (code > 0) {
+                String name = nameOf.apply(code - 1);
+                if (name == null) {
+                    return null;
+                }
+                tags.add(name);
+            } else {
+                int length = (int) LongArrayCodec.readVarint(bytes, pos);
+                tags.add(new String(bytes, pos[0], length, StandardCharsets.UTF_8));
+                pos[0] += length;
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,36 @@
+-- 기존 스키마 (ddl-auto=update + 크롤러가 만들던 테이블)
+-- 이미 테이블이 있는 DB는 baseline-on-migrate로 이 버전을 건너뜀
+CREATE TABLE IF NOT EXISTS games (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    appid          BIGINT,
+    name           VARCHAR(255),
+    description    TEXT,
+    image_url      VARCHAR(255),
+    review_count   INT          NOT NULL DEFAULT 0,
+    korean_support BIT          NOT NULL DEFAULT 0,
+    is_free        BIT          NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_games_appid (appid)
+);
+
+CREATE TABLE IF NOT EXISTS tags (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_tags_name (name)
+);
+
+CREATE TABLE IF NOT EXISTS game_tags (
+    game_id BIGINT NOT NULL,
+    tag_id  BIGINT NOT NULL,
+    PRIMARY KEY (game_id, tag_id),
+    CONSTRAINT fk_game_tags_game FOREIGN KEY (game_id) REFERENCES games (id),
+    CONSTRAINT fk_game_tags_tag FOREIGN KEY (tag_id) REFERENCES tags (id)
+);
+
+CREATE TABLE IF NOT EXISTS tag_cooccurrence (
+    tag1  VARCHAR(255) NOT NULL,
+    tag2  VARCHAR(255) NOT NULL,
+    count INT          NOT NULL,
+    PRIMARY KEY (tag1, tag2)
+);
@@ -0,0 +1,10 @@
+-- ORDER BY RAND() 대신 무작위 키 위치로 seek 하는 DB 추천 경로용
+-- 태그별로 게임 순서를 무작위로 고정해 두는 키 (tag_id, rand_key) 인덱스에서 임의 위치 하나로 바로 이동
+-- 표현식 기본값은 기존 행에도 행마다 따로 계산되므로 별도 UPDATE 없이 채워짐
+ALTER TABLE game_tags ADD COLUMN rand_key DOUBLE NOT NULL DEFAULT (RAND());
+
+-- tag_id로 시작하고 game_id까지 포함하므로 태그 id로 게임을 찾는 조인/개수 조회도 이 인덱스로 처리
+CREATE INDEX idx_game_tags_tag_rand ON game_tags (tag_id, rand_key, game_id);
+
+-- 리뷰 수/한국어/무료 조건 필터와 인덱스 적재 시 리뷰 수 정렬용
+CREATE INDEX idx_games_review_korean_free ON games (review_count, korean_support, is_free);
@@ -0,0 +1,9 @@
+-- 태그 동시 출현 재계산 상태 (모든 노드가 공유)
+-- watermark: 증분 반영을 마친 마지막 game_id, -1이면 다음 실행은 전체 재계산
+CREATE TABLE IF NOT EXISTS cooccurrence_state (
+    id        TINYINT NOT NULL,
+    watermark BIGINT  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT IGNORE INTO cooccurrence_state (id, watermark) VALUES (1, -1);
@@ -0,0 +1,23 @@
+-- 태그 동시 출현 증분 반영용 game_tags 변경 기록 (트리거가 같은 트랜잭션에서 남김)
+-- 크롤러는 기존 게임을 다시 수집할 때도 INSERT IGNORE로 태그를 추가하므로 새 game_id만 보면 빠지는 변경이 있음
+-- delta: 1 = 태그 추가, -1 = 태그 제거. 반영을 마친 행은 재계산 작업이 지움
+-- 바이너리 로그가 켜진 서버에서는 트리거 생성에 SUPER 또는 log_bin_trust_function_creators=1이 필요
+CREATE TABLE IF NOT EXISTS game_tag_changes (
+    id      BIGINT  NOT NULL AUTO_INCREMENT,
+    game_id BIGINT  NOT NULL,
+    tag_id  BIGINT  NOT NULL,
+    delta   TINYINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TRIGGER trg_game_tags_insert AFTER INSERT ON game_tags FOR EACH ROW
+    INSERT INTO game_tag_changes (game_id, tag_id, delta) VALUES (NEW.game_id, NEW.tag_id, 1);
+
+CREATE TRIGGER trg_game_tags_delete AFTER DELETE ON game_tags FOR EACH ROW
+    INSERT INTO game_tag_changes (game_id, tag_id, delta) VALUES (OLD.game_id, OLD.tag_id, -1);
+
+CREATE TRIGGER trg_game_tags_update AFTER UPDATE ON game_tags FOR EACH ROW
+    INSERT INTO game_tag_changes (game_id, tag_id, delta) VALUES (OLD.game_id, OLD.tag_id, -1), (NEW.game_id, NEW.tag_id, 1);
+
+-- watermark는 이제 반영을 마친 마지막 game_tag_changes.id (이전의 game_id 기준값은 버리고 다음 실행에서 전체 재계산)
+UPDATE cooccurrence_state SET watermark = -1 WHERE id = 1;
@@ -0,0 +1,143 @@
+package SteamGame.recommend.service.index;
+
+import SteamGame.recommend.repository.CatalogJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameTagIndexTest {
+	private static final int GAMES = 50;
+	private static final long ACTION = 1;
+	private static final long PUZZLE = 2;
+
+	private GameTagIndex index;
+
+	//games.id 1..50 (리뷰 수 내림차순), 모두 액션이고 짝수 id만 퍼즐
+	@BeforeEach
+	void setUp() throws Exception {
+		CatalogJdbcRepository repository = mock(CatalogJdbcRepository.class);
+		Object[][] games = new Object[GAMES][];
+		for (int i = 0; i < GAMES; i++) {
+			games[i] = new Object[]{i + 1L, 1000L + i, 10_000 - i, true, false};
+		}
+		stream(repository, Source.GAMES, games);
+		stream(repository, Source.TAGS, new Object[][]{{ACTION, "액션"}, {PUZZLE, "퍼즐"}});
+		Object[][] links = new Object[GAMES + GAMES / 2][];
+		int n = 0;
+		for (long id = 1; id <= GAMES; id++) {
+			links[n++] = new Object[]{id, ACTION};
+			if (id % 2 == 0) {
+				links[n++] = new Object[]{id, PUZZLE};
+			}
+		}
+		stream(repository, Source.GAME_TAGS, links);
+
+		index = new GameTagIndex(repository, event -> {
+		}, true);
+		index.refresh();
+		assertThat(index.isReady()).isTrue();
+	}
+
+	//후보 수와 같은 개수를 뽑으면 모든 후보가 정확히 한 번씩 나와야 함
+	@Test
+	void pickRandomReturnsWholePopulationWhenCountEqualsCandidates() {
+		Set<Long> population = LongStream.rangeClosed(1, GAMES).boxed().collect(Collectors.toSet());
+		for (int round = 0; round < 200; round++) {
+			long[] picked = index.pickRandom(List.of("액션"), 0, false, null, List.of(), GAMES);
+
+			assertThat(picked).hasSize(GAMES).doesNotHaveDuplicates();
+			assertThat(Arrays.stream(picked).boxed().collect(Collectors.toSet())).isEqualTo(population);
+		}
+	}
+
+	@Test
+	void pickRandomCapsAtCandidateCountAndSkipsExcluded() {
+		//퍼즐 25개 중 4개 제외 -> 21개
+		List<Long> excludedAppids = List.of(1001L, 1003L, 1005L, 1007L);
+		Set<Long> expected = LongStream.rangeClosed(1, GAMES)
+				.filter(id -> id % 2 == 0 && id != 2 && id != 4 && id != 6 && id != 8)
+				.boxed().collect(Collectors.toSet());
+
+		long[] picked = index.pickRandom(List.of("퍼즐"), 0, false, null, excludedAppids, 100);
+
+		assertThat(picked).hasSize(expected.size()).doesNotHaveDuplicates();
+		assertThat(Arrays.stream(picked).boxed().collect(Collectors.toSet())).isEqualTo(expected);
+	}
+
+	@Test
+	void pickRandomReturnsEmptyWithoutCandidates() {
+		assertThat(index.pickRandom(List.of("없는 태그"), 0, false, null, List.of(), 5)).isEmpty();
+	}
+
+	//k개 표본의 각 원소는 k/n 확률로 뽑혀야 함 (Floyd 샘플링의 균등성)
+	@Test
+	void pickRandomIsUniform() {
+		int trials = 20_000;
+		int k = 5;
+		Map<Long, Integer> hits = new HashMap<>();
+		for (int t = 0; t < trials; t++) {
+			long[] picked = index.pickRandom(List.of("액션"), 0, false, null, List.of(), k);
+			assertThat(picked).hasSize(k).doesNotHaveDuplicates();
+			for (long id : picked) {
+				hits.merge(id, 1, Integer::sum);
+			}
+		}
+
+		double expected = (double) trials * k / GAMES;
+		assertThat(hits).hasSize(GAMES);
+		assertThat(hits.values()).allSatisfy(count -> assertThat((double) count).isBetween(expected * 0.85, expected * 1.15));
+	}
+
+	private enum Source {
+		GAMES, TAGS, GAME_TAGS
+	}
+
+	//각 행을 ResultSet 목으로 만들어 RowCallbackHandler에 넘김 (컬럼 번호는 1부터)
+	private static void stream(CatalogJdbcRepository repository, Source source, Object[][] rows) throws Exception {
+		ResultSet[] resultSets = new ResultSet[rows.length];
+		for (int r = 0; r < rows.length; r++) {
+			ResultSet rs = mock(ResultSet.class);
+			for (int c = 0; c < rows[r].length; c++) {
+				Object value = rows[r][c];
+				if (value instanceof Long l) {
+					when(rs.getLong(c + 1)).thenReturn(l);
+				} else if (value instanceof Integer i) {
+					when(rs.getInt(c + 1)).thenReturn(i);
+				} else if (value instanceof Boolean b) {
+					when(rs.getBoolean(c + 1)).thenReturn(b);
+				} else {
+					when(rs.getString(c + 1)).thenReturn((String) value);
+				}
+			}
+			resultSets[r] = rs;
+		}
+
+		var stubber = doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(0);
+			for (ResultSet rs : resultSets) {
+				handler.processRow(rs);
+			}
+			return null;
+		});
+		switch (source) {
+			case GAMES -> stubber.when(repository).streamGames(any());
+			case TAGS -> stubber.when(repository).streamTags(any());
+			case GAME_TAGS -> stubber.when(repository).streamGameTags(any());
+		}
+	}
+}
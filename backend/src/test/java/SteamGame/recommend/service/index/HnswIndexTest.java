@@ -0,0 +1,142 @@
+package SteamGame.recommend.service.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+	private static final int DIMENSIONS = 16;
+	private static final int SIZE = 2000;
+	private static final int QUERIES = 200;
+	private static final int K = 10;
+	private static final int EF = 64;
+	private static final long KEY_OFFSET = 10_000;
+
+	private float[][] vectors;
+	private HnswIndex index;
+
+	//군집이 있는 정규화 벡터 (게임 태그 벡터처럼 비슷한 게임끼리 모여 있음)
+	@BeforeEach
+	void setUp() {
+		Random random = new Random(99);
+		float[][] centers = new float[20][];
+		for (int c = 0; c < centers.length; c++) {
+			centers[c] = normalize(gaussian(random, 1));
+		}
+		vectors = new float[SIZE][];
+		index = new HnswIndex(DIMENSIONS, 16, 100, 7L);
+		for (int i = 0; i < SIZE; i++) {
+			float[] center = centers[random.nextInt(centers.length)];
+			float[] noise = gaussian(random, 0.35f);
+			float[] vector = new float[DIMENSIONS];
+			for (int d = 0; d < DIMENSIONS; d++) {
+				vector[d] = center[d] + noise[d];
+			}
+			vectors[i] = normalize(vector);
+			assertThat(index.insert(KEY_OFFSET + i, vectors[i])).isTrue();
+		}
+	}
+
+	@Test
+	void recallAgainstExactSearch() {
+		assertThat(recall(index, key -> true)).isGreaterThanOrEqualTo(0.95);
+	}
+
+	//필터로 절반을 걸러도 통과한 키만, 정확 검색과 비슷한 재현율로 반환
+	@Test
+	void recallWithFilter() {
+		LongPredicate odd = key -> key % 2 == 1;
+		assertThat(recall(index, odd)).isGreaterThanOrEqualTo(0.9);
+	}
+
+	@Test
+	void insertRejectsDuplicateKey() {
+		assertThat(index.insert(KEY_OFFSET, vectors[1])).isFalse();
+		assertThat(index.size()).isEqualTo(SIZE);
+		assertThat(index.vectorOf(KEY_OFFSET)).containsExactly(vectors[0]);
+	}
+
+	//스냅샷 파일로 다시 읽어도 같은 그래프 (검색 결과 동일)
+	@Test
+	void snapshotRoundTripKeepsSearchResults() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			index.writeTo(out);
+		}
+		HnswIndex restored;
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			restored = HnswIndex.readFrom(in);
+		}
+
+		assertThat(restored.size()).isEqualTo(SIZE);
+		assertThat(restored.fingerprint()).isEqualTo(7L);
+		Random random = new Random(3);
+		for (int q = 0; q < 20; q++) {
+			float[] query = vectors[random.nextInt(SIZE)];
+			assertThat(restored.search(query, K, EF, key -> true)).containsExactly(index.search(query, K, EF, key -> true));
+		}
+	}
+
+	//질의마다 정확한 상위 K개 중 근사 검색이 찾은 비율의 평균
+	private double recall(HnswIndex target, LongPredicate accept) {
+		Random random = new Random(5);
+		int hits = 0;
+		for (int q = 0; q < QUERIES; q++) {
+			float[] query = normalize(gaussian(random, 1));
+			long[] expected = exact(query, accept);
+			long[] actual = target.search(query, K, EF, accept);
+
+			assertThat(actual).hasSize(K).doesNotHaveDuplicates();
+			assertThat(LongStream.of(actual).allMatch(accept::test)).isTrue();
+			hits += (int) LongStream.of(actual).filter(key -> LongStream.of(expected).anyMatch(e -> e == key)).count();
+		}
+		return (double) hits / (QUERIES * K);
+	}
+
+	private long[] exact(float[] query, LongPredicate accept) {
+		return IntStream.range(0, SIZE)
+				.filter(i -> accept.test(KEY_OFFSET + i))
+				.boxed()
+				.sorted(Comparator.comparingDouble(i -> -dot(query, vectors[i])))
+				.limit(K)
+				.mapToLong(i -> KEY_OFFSET + i)
+				.toArray();
+	}
+
+	private static float dot(float[] a, float[] b) {
+		float dot = 0;
+		for (int d = 0; d < a.length; d++) {
+			dot += a[d] * b[d];
+		}
+		return dot;
+	}
+
+	private static float[] gaussian(Random random, float scale) {
+		float[] vector = new float[DIMENSIONS];
+		for (int d = 0; d < DIMENSIONS; d++) {
+			vector[d] = (float) random.nextGaussian() * scale;
+		}
+		return vector;
+	}
+
+	private static float[] normalize(float[] vector) {
+		float norm = (float) Math.sqrt(dot(vector, vector));
+		float[] normalized = Arrays.copyOf(vector, vector.length);
+		for (int d = 0; d < normalized.length; d++) {
+			normalized[d] /= norm;
+		}
+		return normalized;
+	}
+}
@@ -0,0 +1,101 @@
+package SteamGame.recommend.service.index;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MaxScoreSearchTest {
+	private static final int GAMES = 400;
+	private static final int TAGS = 40;
+
+	//무작위 카탈로그에서 가지치기 결과가 전체 점수 계산 + 정렬 결과와 같아야 함
+	@Test
+	void topKMatchesBruteForce() {
+		Random random = new Random(20240501);
+		for (int round = 0; round < 30; round++) {
+			Fixture fixture = Fixture.random(random);
+			for (int query = 0; query < 20; query++) {
+				int seed = random.nextInt(GAMES);
+				int k = new int[]{1, 3, 10, 50, GAMES}[random.nextInt(5)];
+
+				int[] actual = MaxScoreSearch.topK(seed, fixture.tagOffsets, fixture.tagData, fixture.postings,
+						fixture.idf, fixture.allowed, k);
+
+				assertThat(actual).as("round=%d seed=%d k=%d", round, seed, k)
+						.containsExactly(fixture.bruteForce(seed, k));
+			}
+		}
+	}
+
+	@Test
+	void topKIsEmptyForGameWithoutTags() {
+		Fixture fixture = Fixture.random(new Random(1));
+		int[] tagOffsets = new int[GAMES + 2];
+		System.arraycopy(fixture.tagOffsets, 0, tagOffsets, 0, GAMES + 1);
+		tagOffsets[GAMES + 1] = tagOffsets[GAMES];
+
+		assertThat(MaxScoreSearch.topK(GAMES, tagOffsets, fixture.tagData, fixture.postings, fixture.idf,
+				fixture.allowed, 10)).isEmpty();
+	}
+
+	private record Fixture(int[] tagOffsets, int[] tagData, RoaringBitmap[] postings, float[] idf,
+						   RoaringBitmap allowed) {
+
+		//태그마다 빈도를 다르게 줘서 IDF 상한이 고르게 퍼지도록 함
+		static Fixture random(Random random) {
+			float[] frequency = new float[TAGS];
+			float[] idf = new float[TAGS];
+			RoaringBitmap[] postings = new RoaringBitmap[TAGS];
+			for (int t = 0; t < TAGS; t++) {
+				frequency[t] = 0.01f + random.nextFloat() * 0.4f;
+				idf[t] = 0.1f + random.nextFloat() * 5;
+				postings[t] = new RoaringBitmap();
+			}
+
+			int[] tagOffsets = new int[GAMES + 1];
+			List<Integer> tagData = new ArrayList<>();
+			RoaringBitmap allowed = new RoaringBitmap();
+			for (int g = 0; g < GAMES; g++) {
+				for (int t = 0; t < TAGS; t++) {
+					if (random.nextFloat() < frequency[t]) {
+						postings[t].add(g);
+						tagData.add(t);
+					}
+				}
+				tagOffsets[g + 1] = tagData.size();
+				if (random.nextFloat() < 0.7f) {
+					allowed.add(g);
+				}
+			}
+			return new Fixture(tagOffsets, tagData.stream().mapToInt(Integer::intValue).toArray(), postings, idf, allowed);
+		}
+
+		//모든 게임의 점수를 계산해 점수 내림차순, 동점은 ordinal 오름차순
+		int[] bruteForce(int seed, int k) {
+			float[] weight = new float[TAGS];
+			for (int i = tagOffsets[seed]; i < tagOffsets[seed + 1]; i++) {
+				weight[tagData[i]] = idf[tagData[i]];
+			}
+			float[] scores = new float[GAMES];
+			List<Integer> candidates = new ArrayList<>();
+			for (int g = 0; g < GAMES; g++) {
+				boolean shared = false;
+				for (int i = tagOffsets[g]; i < tagOffsets[g + 1]; i++) {
+					scores[g] += weight[tagData[i]];
+					shared |= weight[tagData[i]] > 0;
+				}
+				if (shared && g != seed && allowed.contains(g)) {
+					candidates.add(g);
+				}
+			}
+			candidates.sort(Comparator.<Integer>comparingDouble(g -> -scores[g]).thenComparingInt(g -> g));
+			return candidates.stream().limit(k).mapToInt(Integer::intValue).toArray();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package SteamGame.recommend.service.tag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickTest {
+
+	//겹치는 패턴(접두/접미/포함 관계)도 모두 찾아야 함
+	@Test
+	void findsOverlappingPatterns() {
+		List<String> patterns = List.of("he", "she", "his", "hers");
+
+		List<int[]> matches = new AhoCorasick(patterns).findAll("ushers");
+
+		assertThat(sorted(matches)).containsExactly(
+				new int[]{1, 4, 1},
+				new int[]{2, 4, 0},
+				new int[]{2, 6, 3});
+	}
+
+	@Test
+	void findsNestedKoreanPatterns() {
+		List<String> patterns = List.of("오픈월드", "월드", "오픈", "픈월");
+
+		List<int[]> matches = new AhoCorasick(patterns).findAll("오픈월드게임");
+
+		assertThat(sorted(matches)).containsExactly(
+				new int[]{0, 2, 2},
+				new int[]{0, 4, 0},
+				new int[]{1, 3, 3},
+				new int[]{2, 4, 1});
+	}
+
+	//작은 알파벳으로 무작위 패턴/텍스트를 만들어 단순 탐색 결과와 비교
+	@Test
+	void matchesBruteForceOnRandomInput() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			List<String> patterns = new ArrayList<>();
+			int patternCount = 1 + random.nextInt(8);
+			for (int p = 0; p < patternCount; p++) {
+				patterns.add(randomString(random, 1 + random.nextInt(4)));
+			}
+			String text = randomString(random, random.nextInt(40));
+
+			List<int[]> expected = new ArrayList<>();
+			for (int p = 0; p < patterns.size(); p++) {
+				//같은 패턴이 여러 번 있으면 첫 번호로 보고됨
+				if (patterns.indexOf(patterns.get(p)) != p) {
+					continue;
+				}
+				String pattern = patterns.get(p);
+				for (int from = text.indexOf(pattern); from >= 0; from = text.indexOf(pattern, from + 1)) {
+					expected.add(new int[]{from, from + pattern.length(), p});
+				}
+			}
+
+			assertThat(sorted(new AhoCorasick(patterns).findAll(text)))
+					.as("patterns=%s text=%s", patterns, text)
+					.containsExactlyElementsOf(sorted(expected));
+		}
+	}
+
+	private static String randomString(Random random, int length) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(3)));
+		}
+		return builder.toString();
+	}
+
+	private static List<int[]> sorted(List<int[]> matches) {
+		List<int[]> copy = new ArrayList<>(matches);
+		copy.sort(Comparator.<int[]>comparingInt(m -> m[0]).thenComparingInt(m -> m[1]).thenComparingInt(m -> m[2]));
+		return copy;
+	}
+}
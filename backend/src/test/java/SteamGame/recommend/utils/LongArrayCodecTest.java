@@ -0,0 +1,65 @@
+package SteamGame.recommend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongArrayCodecTest {
+
+	@Test
+	void roundTripsEmptyArray() {
+		byte[] encoded = LongArrayCodec.encode(new long[0]);
+
+		assertThat(encoded).hasSize(1);
+		assertThat(LongArrayCodec.decode(encoded)).isEmpty();
+	}
+
+	//순서는 보존하지 않으므로 정렬된 값으로 비교
+	@Test
+	void roundTripsValuesAboveIntRange() {
+		long[] values = {2_147_483_648L, 730L, 0L, 1L << 40, Long.MAX_VALUE, 4_294_967_296L, 730L};
+
+		long[] decoded = LongArrayCodec.decode(LongArrayCodec.encode(values));
+
+		long[] expected = values.clone();
+		Arrays.sort(expected);
+		assertThat(decoded).containsExactly(expected);
+	}
+
+	@Test
+	void roundTripsRandomArrays() {
+		Random random = new Random(7);
+		for (int round = 0; round < 100; round++) {
+			long[] values = new long[random.nextInt(200)];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = random.nextBoolean() ? random.nextInt(3_000_000) : random.nextLong() & Long.MAX_VALUE;
+			}
+
+			long[] expected = values.clone();
+			Arrays.sort(expected);
+			assertThat(LongArrayCodec.decode(LongArrayCodec.encode(values))).containsExactly(expected);
+		}
+	}
+
+	@Test
+	void roundTripsPairs() {
+		long[] keys = {3_000_000_000L, 10L, 570L};
+		long[] values = {1L << 33, 0L, 42L};
+
+		long[][] decoded = LongArrayCodec.decodePairs(LongArrayCodec.encodePairs(keys, values));
+
+		assertThat(decoded[0]).containsExactly(10L, 570L, 3_000_000_000L);
+		assertThat(decoded[1]).containsExactly(0L, 42L, 1L << 33);
+	}
+
+	@Test
+	void roundTripsEmptyPairs() {
+		long[][] decoded = LongArrayCodec.decodePairs(LongArrayCodec.encodePairs(new long[0], new long[0]));
+
+		assertThat(decoded[0]).isEmpty();
+		assertThat(decoded[1]).isEmpty();
+	}
+}
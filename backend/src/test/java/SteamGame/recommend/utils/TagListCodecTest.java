@@ -0,0 +1,54 @@
+package SteamGame.recommend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagListCodecTest {
+	//사전 태그 id: 2^31 이상 값도 varint로 그대로 저장되어야 함
+	private static final Map<String, Long> IDS = Map.of(
+			"액션", 0L,
+			"RPG", 17L,
+			"오픈 월드", 2_147_483_648L,
+			"로그라이크", 5_000_000_000L);
+
+	@Test
+	void roundTripsEmptyList() {
+		byte[] encoded = TagListCodec.encode(List.of(), this::idOf);
+
+		assertThat(encoded).hasSize(1);
+		assertThat(TagListCodec.decode(encoded, this::nameOf)).isEmpty();
+	}
+
+	//사전 태그와 사전에 없는 태그(UTF-8 그대로)가 섞여도 순서까지 그대로 복원
+	@Test
+	void roundTripsKnownAndUnknownTags() {
+		List<String> tags = List.of("오픈 월드", "힐링 농장", "액션", "로그라이크", "", "RPG");
+
+		byte[] encoded = TagListCodec.encode(tags, this::idOf);
+
+		assertThat(TagListCodec.decode(encoded, this::nameOf)).containsExactlyElementsOf(tags);
+	}
+
+	@Test
+	void decodeReturnsNullWhenIdIsNoLongerKnown() {
+		byte[] encoded = TagListCodec.encode(List.of("액션", "RPG"), this::idOf);
+
+		assertThat(TagListCodec.decode(encoded, id -> id == 17L ? null : nameOf(id))).isNull();
+	}
+
+	private long idOf(String tag) {
+		return IDS.getOrDefault(tag, -1L);
+	}
+
+	private String nameOf(long id) {
+		return IDS.entrySet().stream()
+				.filter(e -> e.getValue() == id)
+				.map(Map.Entry::getKey)
+				.findFirst()
+				.orElse(null);
+	}
+}